@@ -0,0 +1,30 @@
+package de.lars.colorpicker.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks headless and writes the results as JSON.
+ * <p>All JMH command line options are supported. Without <code>-rf</code> the results
+ * are written to <code>jmh-result.json</code>, use <code>-rff</code> to choose another file.</p>
+ * @author Lars O.
+ *
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws Exception {
+		System.setProperty("java.awt.headless", "true");
+		List<String> options = new ArrayList<>(Arrays.asList(args));
+		if(!options.contains("-rf")) {
+			options.add("-rf");
+			options.add("json");
+			if(!options.contains("-rff")) {
+				options.add("-rff");
+				options.add("jmh-result.json");
+			}
+		}
+		org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+	}
+
+}
@@ -0,0 +1,69 @@
+package de.lars.colorpicker.benchmarks;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.lars.colorpicker.utils.ColorUitl;
+
+/**
+ * Throughput of single color conversions, reported per color.
+ * Only uses API of version 0.4, see {@link de.lars.colorpicker.benchmarks.extended.ColorConverterBenchmark}
+ * for the batch conversions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ConversionBenchmark {
+
+	private static final int COLORS = 1 << 16;
+
+	private int[] argb;
+	private Color[] colors;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(42);
+		argb = new int[COLORS];
+		colors = new Color[COLORS];
+		for(int i = 0; i < COLORS; i++) {
+			argb[i] = 0xFF000000 | random.nextInt(1 << 24);
+			colors[i] = new Color(argb[i]);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public void awtRgbToHsb(Blackhole bh) {
+		float[] hsb = new float[3];
+		for(int c : argb) {
+			bh.consume(Color.RGBtoHSB((c >> 16) & 0xFF, (c >> 8) & 0xFF, c & 0xFF, hsb));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public void colorUtilHue(Blackhole bh) {
+		for(Color c : colors) {
+			bh.consume(ColorUitl.getHueFromColor(c));
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+package de.lars.colorpicker.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lars.colorpicker.components.graphics.ColorPickerField;
+
+/**
+ * Rendering of the saturation/brightness field with the default settings.
+ * Only uses API of version 0.4, see {@link de.lars.colorpicker.benchmarks.extended.FieldRenderModeBenchmark}
+ * for the different render modes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FieldRenderBenchmark {
+
+	@Param({"100", "300", "1000"})
+	public int size;
+
+	private ColorPickerField field;
+	private float hue;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		field = new ColorPickerField(size, size, 0f);
+		field.update();
+	}
+
+	/**
+	 * Render the field again without changing the hue
+	 */
+	@Benchmark
+	public Object render() {
+		field.update();
+		return field.getBufferedImage();
+	}
+
+	/**
+	 * Change the hue and render the field, like dragging the hue slider
+	 */
+	@Benchmark
+	public Object hueChange() {
+		hue += 0.001f;
+		if(hue >= 1f)
+			hue = 0f;
+		field.setHue(hue);
+		field.update();
+		return field.getBufferedImage();
+	}
+
+}
@@ -0,0 +1,53 @@
+package de.lars.colorpicker.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lars.colorpicker.components.graphics.ColorPickerHueSlider;
+
+/**
+ * Rendering of the hue slider image. Only uses API of version 0.4.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HueSliderBenchmark {
+
+	@Param({"200", "500", "2000"})
+	public int width;
+
+	@Param({"10", "25"})
+	public int height;
+
+	private ColorPickerHueSlider slider;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		slider = new ColorPickerHueSlider(width, height);
+	}
+
+	/**
+	 * Render the complete slider image after a size change
+	 */
+	@Benchmark
+	public Object renderImage() {
+		slider.update();
+		return slider.getBufferedImage();
+	}
+
+}
@@ -0,0 +1,68 @@
+package de.lars.colorpicker.benchmarks;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.lars.colorpicker.ColorPicker;
+import de.lars.colorpicker.listener.ColorListener;
+
+/**
+ * Dispatch of color change events to listeners. Only uses API of version 0.4.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ListenerBenchmark {
+
+	@Param({"1", "10", "100"})
+	public int listeners;
+
+	private ColorPicker picker;
+	private Color[] colors;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup(final Blackhole bh) {
+		picker = new ColorPicker(Color.RED, 30, true, true, true, false);
+		picker.setSize(500, 350);
+		for(int i = 0; i < listeners; i++) {
+			picker.addColorListener(new ColorListener() {
+				@Override
+				public void onColorChanged(Color color) {
+					bh.consume(color);
+				}
+			});
+		}
+		colors = new Color[256];
+		for(int i = 0; i < colors.length; i++) {
+			colors[i] = Color.getHSBColor(i / 256f, 0.8f, 0.9f);
+		}
+	}
+
+	/**
+	 * Select a color, updates all panels and notifies the listeners
+	 */
+	@Benchmark
+	public Color selectColor() {
+		picker.setSelectedColor(colors[next++ & 0xFF]);
+		return picker.getColor();
+	}
+
+}
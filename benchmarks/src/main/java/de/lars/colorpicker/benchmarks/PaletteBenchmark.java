@@ -0,0 +1,62 @@
+package de.lars.colorpicker.benchmarks;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lars.colorpicker.components.panels.ColorPalettePanel;
+
+/**
+ * Insertion into full palette panels of different sizes.
+ * Only uses API of version 0.4, see {@link de.lars.colorpicker.benchmarks.extended.PaletteModelBenchmark}
+ * for the palette model, grid and color index.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaletteBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int size;
+
+	private ColorPalettePanel panel;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Color[] colors = new Color[size];
+		for(int i = 0; i < size; i++) {
+			colors[i] = Color.getHSBColor((float) i / size, 1f, 1f);
+		}
+		panel = new ColorPalettePanel(size, 20);
+		panel.setSize(300, 200);
+		panel.addColor(colors);
+	}
+
+	private int nextColor() {
+		next = (next + 0x10203) & 0xFFFFFF;
+		return 0xFF000000 | next;
+	}
+
+	@Benchmark
+	public Object panelAdd() {
+		panel.addColor(new Color(nextColor()));
+		return panel;
+	}
+
+}
@@ -0,0 +1,99 @@
+package de.lars.colorpicker.benchmarks.extended;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lars.colorpicker.utils.ColorConverter;
+
+/**
+ * Throughput of batch color conversions, reported per color
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ColorConverterBenchmark {
+
+	private static final int COLORS = 1 << 16;
+
+	private int[] argb;
+	private int[] out;
+	private float[] c0, c1, c2;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(42);
+		argb = new int[COLORS];
+		out = new int[COLORS];
+		c0 = new float[COLORS];
+		c1 = new float[COLORS];
+		c2 = new float[COLORS];
+		for(int i = 0; i < COLORS; i++) {
+			argb[i] = 0xFF000000 | random.nextInt(1 << 24);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public int[] rgbToHsbToRgb() {
+		ColorConverter.rgbToHsb(argb, 0, c0, c1, c2, 0, COLORS);
+		ColorConverter.hsbToRgb(c0, c1, c2, 0, out, 0, COLORS);
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public int[] rgbToHslToRgb() {
+		ColorConverter.rgbToHsl(argb, 0, c0, c1, c2, 0, COLORS);
+		ColorConverter.hslToRgb(c0, c1, c2, 0, out, 0, COLORS);
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public int[] rgbToLinearToRgb() {
+		ColorConverter.rgbToLinear(argb, 0, c0, c1, c2, 0, COLORS);
+		ColorConverter.linearToRgb(c0, c1, c2, 0, out, 0, COLORS);
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public int[] rgbToLabToRgb() {
+		ColorConverter.rgbToLab(argb, 0, c0, c1, c2, 0, COLORS);
+		ColorConverter.labToRgb(c0, c1, c2, 0, out, 0, COLORS);
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public int[] rgbToOklabToRgb() {
+		ColorConverter.rgbToOklab(argb, 0, c0, c1, c2, 0, COLORS);
+		ColorConverter.oklabToRgb(c0, c1, c2, 0, out, 0, COLORS);
+		return out;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public int[] rgbToOklchToRgb() {
+		ColorConverter.rgbToOklch(argb, 0, c0, c1, c2, 0, COLORS);
+		ColorConverter.oklchToRgb(c0, c1, c2, 0, out, 0, COLORS);
+		return out;
+	}
+
+}
@@ -0,0 +1,91 @@
+package de.lars.colorpicker.benchmarks.extended;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.lars.colorpicker.utils.CssColor;
+
+/**
+ * Throughput of parsing color strings, reported per color
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CssParseBenchmark {
+
+	private static final int COLORS = 1 << 14;
+
+	private String[] hex;
+	private String[] mixed;
+	private String list;
+	private int[] out;
+	private CssColor parser;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(42);
+		hex = new String[COLORS];
+		mixed = new String[COLORS];
+		out = new int[COLORS];
+		parser = new CssColor();
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < COLORS; i++) {
+			int argb = random.nextInt();
+			hex[i] = CssColor.toHex(argb | 0xFF000000);
+			sb.setLength(0);
+			switch(i % 4) {
+				case 0: CssColor.appendHex(sb, argb); break;
+				case 1: CssColor.appendRgb(sb, argb); break;
+				case 2: CssColor.appendHsl(sb, argb); break;
+				default: sb.append(i % 8 == 3 ? "rebeccapurple" : "LightGoldenrodYellow");
+			}
+			mixed[i] = sb.toString();
+		}
+		list = String.join(", ", mixed);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public void awtDecodeHex(Blackhole bh) {
+		for(String s : hex) {
+			bh.consume(Color.decode(s));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public int cssParseHex() {
+		return parser.parseAll(hex, 0, out, 0, COLORS, 0);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public int cssParseMixed() {
+		return parser.parseAll(mixed, 0, out, 0, COLORS, 0);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COLORS)
+	public int cssParseList() {
+		return parser.parseList(list, out, 0);
+	}
+
+}
@@ -0,0 +1,77 @@
+package de.lars.colorpicker.benchmarks.extended;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lars.colorpicker.components.graphics.ColorFieldCache;
+import de.lars.colorpicker.components.graphics.ColorPickerField;
+import de.lars.colorpicker.components.graphics.ColorPickerField.RenderMode;
+
+/**
+ * Rendering of the saturation/brightness field in the different render modes,
+ * with the field cache disabled
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FieldRenderModeBenchmark {
+
+	@Param({"100", "300", "1000"})
+	public int size;
+
+	@Param({"REFERENCE", "DIRECT", "WEIGHT_PLANES", "GRADIENT"})
+	public RenderMode renderMode;
+
+	@Param({"false", "true"})
+	public boolean parallel;
+
+	private ColorPickerField field;
+	private float hue;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		ColorFieldCache.setEnabled(false);
+		field = new ColorPickerField(size, size, 0f);
+		field.setRenderMode(renderMode);
+		field.setParallelRendering(parallel);
+		field.update();
+	}
+
+	/**
+	 * Render the field again without changing the hue
+	 */
+	@Benchmark
+	public Object render() {
+		field.update();
+		return field.getBufferedImage();
+	}
+
+	/**
+	 * Change the hue and render the field, like dragging the hue slider
+	 */
+	@Benchmark
+	public Object hueChange() {
+		hue += 0.001f;
+		if(hue >= 1f)
+			hue = 0f;
+		field.setHue(hue);
+		field.update();
+		return field.getBufferedImage();
+	}
+
+}
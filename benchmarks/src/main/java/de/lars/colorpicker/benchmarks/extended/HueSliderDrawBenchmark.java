@@ -0,0 +1,65 @@
+package de.lars.colorpicker.benchmarks.extended;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lars.colorpicker.components.graphics.ColorPickerHueSlider;
+
+/**
+ * Drawing the hue slider from the shared hue strip
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HueSliderDrawBenchmark {
+
+	@Param({"200", "500", "2000"})
+	public int width;
+
+	@Param({"10", "25"})
+	public int height;
+
+	private ColorPickerHueSlider slider;
+	private BufferedImage target;
+	private Graphics2D g2d;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		slider = new ColorPickerHueSlider(width, height);
+		target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		g2d = target.createGraphics();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		g2d.dispose();
+	}
+
+	/**
+	 * Draw the slider from the shared hue strip
+	 */
+	@Benchmark
+	public Object draw() {
+		slider.draw(g2d, 0, 0);
+		return target;
+	}
+
+}
@@ -0,0 +1,99 @@
+package de.lars.colorpicker.benchmarks.extended;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lars.colorpicker.components.ColorPaletteModel;
+import de.lars.colorpicker.components.PaletteColorIndex;
+import de.lars.colorpicker.components.panels.ColorPaletteGrid;
+import de.lars.colorpicker.components.panels.ColorPalettePanel;
+
+/**
+ * Insertion into full palette models and grids of different sizes,
+ * replacing all colors of a panel and nearest color lookup
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaletteModelBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int size;
+
+	private ColorPaletteModel model;
+	private ColorPalettePanel panel;
+	private ColorPaletteGrid grid;
+	private PaletteColorIndex index;
+	private Color[] colors;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		colors = new Color[size];
+		int[] rgb = new int[size];
+		for(int i = 0; i < size; i++) {
+			rgb[i] = Color.HSBtoRGB((float) i / size, 1f, 1f);
+			colors[i] = new Color(rgb[i]);
+		}
+		model = new ColorPaletteModel(size);
+		model.setColors(rgb);
+
+		panel = new ColorPalettePanel(size, 20);
+		panel.setSize(300, 200);
+		panel.setColors(colors);
+
+		grid = new ColorPaletteGrid(new ColorPaletteModel(size), 20, 5);
+		grid.setSize(300, 200);
+		grid.setColors(rgb);
+
+		index = new PaletteColorIndex(rgb);
+	}
+
+	private int nextColor() {
+		next = (next + 0x10203) & 0xFFFFFF;
+		return 0xFF000000 | next;
+	}
+
+	@Benchmark
+	public Object modelAdd() {
+		model.addColor(nextColor());
+		return model;
+	}
+
+	@Benchmark
+	public Object gridAdd() {
+		grid.getModel().addColor(nextColor());
+		return grid;
+	}
+
+	/**
+	 * Replace all colors of the panel with a single layout
+	 */
+	@Benchmark
+	public Object panelSetAll() {
+		panel.setColors(colors);
+		return panel;
+	}
+
+	@Benchmark
+	public int nearestColor() {
+		return index.nearest(nextColor());
+	}
+
+}
@@ -0,0 +1,66 @@
+package de.lars.colorpicker.benchmarks.extended;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.lars.colorpicker.components.PaletteStore;
+import de.lars.colorpicker.components.events.PaletteStoreListener;
+
+/**
+ * Dispatch of palette store changes to listeners
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaletteStoreBenchmark {
+
+	@Param({"1", "10", "100"})
+	public int listeners;
+
+	private PaletteStore store;
+	private int[] colors;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup(final Blackhole bh) {
+		store = new PaletteStore();
+		for(int i = 0; i < listeners; i++) {
+			store.addPaletteStoreListener(new PaletteStoreListener() {
+				@Override
+				public void onPaletteStoreChanged(PaletteStore.Snapshot snapshot) {
+					bh.consume(snapshot);
+				}
+			});
+		}
+		colors = new int[256];
+		for(int i = 0; i < colors.length; i++) {
+			colors[i] = Color.HSBtoRGB(i / 256f, 0.8f, 0.9f);
+		}
+	}
+
+	/**
+	 * Change the palette store and notify its listeners
+	 */
+	@Benchmark
+	public Object paletteStoreUpdate() {
+		return store.setColors(new int[] { colors[next++ & 0xFF] });
+	}
+
+}
@@ -10,8 +10,7 @@ import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -21,20 +20,30 @@ import javax.swing.JDialog;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 
+import de.lars.colorpicker.components.ColorPaletteModel;
+import de.lars.colorpicker.components.PaletteColorIndex;
+import de.lars.colorpicker.components.PaletteStore;
 import de.lars.colorpicker.components.events.ColorValueAdapter;
 import de.lars.colorpicker.components.events.ColorValueChangeEvent;
 import de.lars.colorpicker.components.events.PaletteItemListener;
+import de.lars.colorpicker.components.events.PaletteStoreListener;
 import de.lars.colorpicker.components.graphics.ColorPaletteItem;
 import de.lars.colorpicker.components.panels.ColorFieldPanel;
+import de.lars.colorpicker.components.panels.ColorPaletteGrid;
 import de.lars.colorpicker.components.panels.ColorPalettePanel;
 import de.lars.colorpicker.components.panels.ColorPreviewPanel;
 import de.lars.colorpicker.components.panels.ColorValuesPanel;
 import de.lars.colorpicker.components.panels.HueSliderPanel;
+import de.lars.colorpicker.listener.CoalescingColorDispatcher;
 import de.lars.colorpicker.listener.ColorListener;
+import de.lars.colorpicker.listener.PrimitiveColorListener;
 import de.lars.colorpicker.utils.ColorPickerStyle;
 import de.lars.colorpicker.utils.ColorUitl;
+import de.lars.colorpicker.utils.ColorValue;
+import de.lars.colorpicker.utils.ListenerList;
 
 /**
  * Simple and modern ColorPicker for Java swing.
@@ -48,9 +57,28 @@ public class ColorPicker extends JComponent {
 	/**
 	 * <p>Static color array for {@link ColorPalettePanel}</p>
 	 * <p>Used when {@link #sharedPaletteColors} <code>true</code></p>
+	 * @deprecated the shared colors are stored in {@link PaletteStore#getShared()}.
+	 * This array mirrors the store, an assigned array is copied into the store
+	 * when the next ColorPicker is created or shown.
 	 */
+	@Deprecated
 	public static Color[] paletteColors;
 	
+	/**
+	 * Last array written to {@link #paletteColors} by the store
+	 */
+	private static Color[] mirroredPaletteColors;
+	private static long mirroredVersion = -1;
+	
+	static {
+		PaletteStore.getShared().addPaletteStoreListener(new PaletteStoreListener() {
+			@Override
+			public void onPaletteStoreChanged(PaletteStore.Snapshot snapshot) {
+				mirrorPaletteColors(snapshot);
+			}
+		});
+	}
+	
 	/**
 	 * {@link HueSliderPanel} height
 	 */
@@ -61,13 +89,22 @@ public class ColorPicker extends JComponent {
 	private ColorPreviewPanel panelPreview;
 	private ColorValuesPanel panelValues;
 	private ColorPalettePanel panelColorPalette;
+	private ColorPaletteGrid paletteGrid;	// not null if the palette is shown as a grid
+	private JScrollPane scrollPalette;
 	
-	private Color selColor;
-	private List<ColorListener> listColorListener;
+	private volatile int selRGB;		// selected color
+	private volatile float selHue;
+	private volatile Color selColor;	// selected color object, created when requested
+	private volatile boolean cancelled;	// Cancel was clicked in the dialog
+	private ListenerList<ColorListener> listColorListener;
+	private ListenerList<PrimitiveColorListener> listPrimitiveListener;
+	private volatile CoalescingColorDispatcher colorDispatcher;	// null = synchronous dispatch
 	
 	private int prevHeight, prevWidth;
 	private boolean previewPanelEnabled, colorValuesEnabled, colorPaletteEnabled;
 	private boolean sharedPaletteColors;
+	private long paletteVersion = -1;
+	private PaletteColorIndex paletteIndex;	// not null if snap to palette is enabled
 	
 	/**
 	 * Creates a ColorPicker pane with an initial color of red
@@ -91,7 +128,7 @@ public class ColorPicker extends JComponent {
 	 * @param previewPanel enable or disable {@link ColorPreviewPanel}
 	 * @param colorValues enable or disable {@linkplain ColorValuesPanel}
 	 * @param colorPalette enable or disable {@link ColorPalettePanel}
-	 * @param sharedPaletteColors enable or disable shared color palette ({@link #paletteColors})
+	 * @param sharedPaletteColors enable or disable shared color palette ({@link PaletteStore#getShared()})
 	 */
 	public ColorPicker(Color initialColor, int maxPaletteColors, boolean previewPanel, boolean colorValues, boolean colorPalette, boolean sharedPaletteColors) {
 		this.previewPanelEnabled = previewPanel;
@@ -99,7 +136,10 @@ public class ColorPicker extends JComponent {
 		this.colorPaletteEnabled = colorPalette;
 		this.sharedPaletteColors = sharedPaletteColors;
 		this.selColor = initialColor;
-		this.listColorListener = new ArrayList<>();
+		this.selRGB = initialColor.getRGB();
+		this.selHue = ColorUitl.getHueFromColor(initialColor);
+		this.listColorListener = new ListenerList<>(ColorListener.class);
+		this.listPrimitiveListener = new ListenerList<>(PrimitiveColorListener.class);
 		setBackground(ColorPickerStyle.colorBackground);
 		
 		panelField = new ColorFieldPanel(initialColor);
@@ -120,8 +160,8 @@ public class ColorPicker extends JComponent {
 		panelPreview.setCanAdd(true);
 		
 		panelColorPalette = new ColorPalettePanel();
-		if(paletteColors != null && paletteColors.length > 0 && sharedPaletteColors) {
-			panelColorPalette.addColor(paletteColors);
+		if(sharedPaletteColors) {
+			applySharedPalette(getSharedPalette());
 		}
 		
 		addPanels();
@@ -162,7 +202,7 @@ public class ColorPicker extends JComponent {
 			this.add(panelValues);
 		
 		if(colorPaletteEnabled) {
-			JScrollPane scrollPalette = new JScrollPane(panelColorPalette);
+			scrollPalette = new JScrollPane(paletteGrid != null ? paletteGrid : panelColorPalette);
 			scrollPalette.setPreferredSize(new Dimension(Integer.MAX_VALUE, 60));
 			scrollPalette.setMinimumSize(new Dimension(Integer.MAX_VALUE, 60));
 			scrollPalette.setMaximumSize(new Dimension(Integer.MAX_VALUE, 300));
@@ -198,8 +238,8 @@ public class ColorPicker extends JComponent {
 	 * Triggered when selector in color field was moved
 	 */
 	private ColorValueAdapter onColorChanged = new ColorValueAdapter() {
-		public void onColorValueChanged(Color color) {
-			colorUpdated(color);
+		public void onColorValueChanged(int argb, float hue) {
+			colorUpdated(argb, hue);
 		};
 	};
 	
@@ -210,23 +250,46 @@ public class ColorPicker extends JComponent {
 		public void onHueValueChanged(float hue) {
 			panelField.getColorPickerField().setHue(hue);
 			panelField.updateColorField();
-			panelValues.setHue(hue);
-			colorUpdated(panelField.getColor());
+			colorUpdated(panelField.getRGB(), hue);
+		};
+		
+		public void onColorValueChanged(int argb, float hue) {
+			// the color of the hue slider is not the selected color
 		};
 	};
 	
 	/**
 	 * Update color of other panels and fire color change event
-	 * @param color Updated color
+	 * @param argb packed ARGB value of the updated color
+	 * @param hue hue of the updated color
 	 */
-	private void colorUpdated(Color color) {
-		panelValues.setColor(color);
-		panelPreview.setColor(color);
-		selColor = color;
-		fireColorEvent(color);
+	private void colorUpdated(int argb, float hue) {
+		if(paletteIndex != null && !paletteIndex.isEmpty()) {
+			int rgb = paletteIndex.nearest(argb);
+			if(rgb != argb) {
+				argb = rgb;
+				hue = ColorUitl.getHueFromRGB(rgb);
+				// move the selector to the palette color
+				panelField.setSelectedRGB(rgb);
+			}
+		}
+		panelValues.setColor(argb);
+		panelValues.setHue(hue);
+		panelPreview.setColor(argb);
+		setSelected(argb, hue);
+		fireColorEvent(argb, hue);
 		updateColorValuePanel();
 	}
 	
+	/**
+	 * Store the selected color, the {@link Color} object is created when requested
+	 */
+	private void setSelected(int argb, float hue) {
+		selRGB = argb;
+		selHue = hue;
+		cancelled = false;
+	}
+	
 	
 	/**
 	 * Triggered when value in color values panel was changed/edited
@@ -244,7 +307,8 @@ public class ColorPicker extends JComponent {
 			panelField.setSelectedColor(color);
 			panelPreview.setColor(color);
 			selColor = color;
-			fireColorEvent(color);
+			setSelected(color.getRGB(), panelValues.getHue());
+			fireColorEvent(selRGB, selHue);
 		}
 	};
 	
@@ -255,15 +319,81 @@ public class ColorPicker extends JComponent {
 	private MouseAdapter onPreviewPanelClicked = new MouseAdapter() {
 		public void mouseClicked(MouseEvent e) {
 			if(panelPreview.canAdd()) {
-				panelColorPalette.addColor(panelPreview.getColor());
 				if(sharedPaletteColors) {
-					ColorPicker.paletteColors = panelColorPalette.getPaletteColors();
+					// add to the shared colors, the store updates all pickers
+					applySharedPalette(PaletteStore.getShared().addColor(panelPreview.getColor().getRGB(),
+							panelColorPalette.getMaxPaletteItems(), panelColorPalette.getModelAddBehavior()));
+				} else {
+					panelColorPalette.addColor(panelPreview.getColor());
 				}
 			}
 		};
 	};
 	
 	
+	/**
+	 * Triggered when the shared palette colors were changed (on any thread)
+	 */
+	private PaletteStoreListener onSharedPaletteChanged = new PaletteStoreListener() {
+		@Override
+		public void onPaletteStoreChanged(final PaletteStore.Snapshot snapshot) {
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					applySharedPalette(snapshot);
+				}
+			});
+		}
+	};
+	
+	/**
+	 * Show the colors of a shared palette snapshot. Snapshots older
+	 * than the currently shown colors are ignored.
+	 * @param snapshot snapshot of {@link PaletteStore#getShared()}
+	 */
+	private void applySharedPalette(PaletteStore.Snapshot snapshot) {
+		if(snapshot.getVersion() <= paletteVersion)
+			return;
+		paletteVersion = snapshot.getVersion();
+		if(!snapshot.hasColors(panelColorPalette.getModel().toArray())) {
+			panelColorPalette.getModel().setColors(snapshot.toArray());
+		}
+	}
+	
+	/**
+	 * Get the shared palette colors. If {@link #paletteColors} was assigned
+	 * from outside, the assigned colors are copied into the store first.
+	 * @return current snapshot of {@link PaletteStore#getShared()}
+	 */
+	@SuppressWarnings("deprecation")
+	private static PaletteStore.Snapshot getSharedPalette() {
+		synchronized (ColorPicker.class) {
+			Color[] legacy = paletteColors;
+			if(legacy == mirroredPaletteColors || legacy == null)
+				return PaletteStore.getShared().getSnapshot();
+			mirroredPaletteColors = legacy;
+			int[] rgb = new int[legacy.length];
+			for(int i = 0; i < rgb.length; i++) {
+				rgb[i] = legacy[i].getRGB();
+			}
+			return PaletteStore.getShared().setColors(rgb);
+		}
+	}
+	
+	/**
+	 * Write the shared colors to {@link #paletteColors}
+	 * @param snapshot snapshot of {@link PaletteStore#getShared()}
+	 */
+	@SuppressWarnings("deprecation")
+	private static synchronized void mirrorPaletteColors(PaletteStore.Snapshot snapshot) {
+		if(snapshot.getVersion() <= mirroredVersion)
+			return;
+		mirroredVersion = snapshot.getVersion();
+		mirroredPaletteColors = snapshot.toColors();
+		paletteColors = mirroredPaletteColors;
+	}
+	
+	
 	/**
 	 * Triggered when color palette item was clicked
 	 */
@@ -275,15 +405,61 @@ public class ColorPicker extends JComponent {
 	};
 	
 	
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		if(sharedPaletteColors) {
+			PaletteStore.getShared().addPaletteStoreListener(onSharedPaletteChanged);
+			applySharedPalette(getSharedPalette());
+		}
+	}
+	
+	@Override
+	public void removeNotify() {
+		PaletteStore.getShared().removePaletteStoreListener(onSharedPaletteChanged);
+		super.removeNotify();
+	}
+	
+	
 	/**
-	 * Trigger {@link ColorListener}
-	 * @param color Event color
+	 * Trigger the listeners directly or through the coalescing dispatcher
+	 * @param argb packed ARGB value of the event color
+	 * @param hue hue of the event color
 	 */
-	private void fireColorEvent(Color color) {
-		for(ColorListener listener : listColorListener) {
-			if(listener != null) {
-				listener.onColorChanged(color);
-			}
+	private void fireColorEvent(int argb, float hue) {
+		CoalescingColorDispatcher dispatcher = colorDispatcher;
+		if(dispatcher != null)
+			dispatcher.fire(argb, hue);
+		else
+			notifyColorListeners(argb, hue);
+	}
+	
+	/**
+	 * Receives the colors of the coalescing dispatcher
+	 */
+	private PrimitiveColorListener dispatchedColorListener = new PrimitiveColorListener() {
+		@Override
+		public void onColorChanged(int argb, float hue) {
+			notifyColorListeners(argb, hue);
+		}
+	};
+	
+	/**
+	 * Notify all listeners. A {@link Color} object is only
+	 * created if a {@link ColorListener} is registered.
+	 */
+	private void notifyColorListeners(int argb, float hue) {
+		for(PrimitiveColorListener listener : listPrimitiveListener.getListeners()) {
+			listener.onColorChanged(argb, hue);
+		}
+		ColorListener[] listeners = listColorListener.getListeners();
+		if(listeners.length == 0)
+			return;
+		Color color = selColor;
+		if(color == null || color.getRGB() != argb)
+			selColor = color = new Color(argb, true);	// reused by getColor()
+		for(ColorListener listener : listeners) {
+			listener.onColorChanged(color);
 		}
 	}
 	
@@ -301,7 +477,8 @@ public class ColorPicker extends JComponent {
 		panelValues.setColor(color);
 		panelValues.setHue(hue);
 		selColor = color;
-		fireColorEvent(color);
+		setSelected(color.getRGB(), hue);
+		fireColorEvent(selRGB, selHue);
 		updateColorValuePanel();
 	}
 	
@@ -315,10 +492,26 @@ public class ColorPicker extends JComponent {
 	
 	/**
 	 * Get the selected color
-	 * @return selected color
+	 * @return selected color or <code>null</code> if <code>Cancel</code> was clicked in the dialog
 	 */
 	public Color getColor() {
-		return selColor;
+		if(cancelled)
+			return null;
+		int rgb = selRGB;
+		Color color = selColor;
+		if(color == null || color.getRGB() != rgb)
+			selColor = color = new Color(rgb, true);
+		return color;
+	}
+	
+	/**
+	 * Get the selected color and its hue
+	 * @return selected color or <code>null</code> if <code>Cancel</code> was clicked in the dialog
+	 */
+	public ColorValue getColorValue() {
+		if(cancelled)
+			return null;
+		return new ColorValue(selRGB, selHue);
 	}
 	
 	
@@ -364,6 +557,66 @@ public class ColorPicker extends JComponent {
 		listColorListener.add(listener);
 	}
 	
+	/**
+	 * Add color change listener that is held by a weak reference.
+	 * The listener is removed when it is no longer referenced anywhere else.
+	 * @param listener {@link ColorListener}
+	 */
+	public void addWeakColorListener(ColorListener listener) {
+		listColorListener.addWeak(listener);
+	}
+	
+	/**
+	 * Remove color change listener
+	 * @param listener {@link ColorListener}
+	 */
+	public void removeColorListener(ColorListener listener) {
+		listColorListener.remove(listener);
+	}
+	
+	/**
+	 * Add color change listener that receives the color as packed ARGB value and hue.
+	 * No objects are created to notify these listeners.
+	 * @param listener {@link PrimitiveColorListener}
+	 */
+	public void addPrimitiveColorListener(PrimitiveColorListener listener) {
+		listPrimitiveListener.add(listener);
+	}
+	
+	/**
+	 * Remove primitive color change listener
+	 * @param listener {@link PrimitiveColorListener}
+	 */
+	public void removePrimitiveColorListener(PrimitiveColorListener listener) {
+		listPrimitiveListener.remove(listener);
+	}
+	
+	
+	/**
+	 * Coalesce color change events and deliver only the latest color to the
+	 * {@link ColorListener}s and {@link PrimitiveColorListener}s, at most <code>maxRate</code> times per second on the
+	 * event dispatch thread. The last color is always delivered.
+	 * @param maxRate maximum number of events per second, <code>0</code> to notify the listeners synchronously
+	 */
+	public void setCoalescedDispatch(int maxRate) {
+		setCoalescedDispatch(maxRate, null);
+	}
+	
+	/**
+	 * Coalesce color change events and deliver only the latest color to the
+	 * {@link ColorListener}s and {@link PrimitiveColorListener}s, at most <code>maxRate</code> times per second.
+	 * The last color is always delivered.
+	 * @param maxRate maximum number of events per second, <code>0</code> to notify the listeners synchronously
+	 * @param executor executor that notifies the listeners or <code>null</code> for the event dispatch thread
+	 */
+	public void setCoalescedDispatch(int maxRate, Executor executor) {
+		colorDispatcher = maxRate > 0 ? new CoalescingColorDispatcher(dispatchedColorListener, maxRate, executor) : null;
+	}
+	
+	public boolean isCoalescedDispatch() {
+		return colorDispatcher != null;
+	}
+	
 	
 	/**
 	 * Get the {@link ColorPalettePanel} of this ColorPicker
@@ -373,6 +626,74 @@ public class ColorPicker extends JComponent {
 		return panelColorPalette;
 	}
 	
+	/**
+	 * Show the palette colors in a {@link ColorPaletteGrid} instead of the {@link ColorPalettePanel}.
+	 * The panel creates a component per color, the grid paints only the visible colors,
+	 * so use the grid for large palettes (thousands of colors).
+	 * Both views show the colors of the same {@link ColorPaletteModel}.
+	 * @param gridView show the palette as a grid?
+	 */
+	public void setPaletteGridView(boolean gridView) {
+		if(gridView == (paletteGrid != null))
+			return;
+		if(gridView) {
+			paletteGrid = new ColorPaletteGrid(panelColorPalette.getModel(), panelColorPalette.getItemSize(), 5);
+			paletteGrid.addPaletteItemListener(onPaletteItemClicked);
+			panelColorPalette.setItemsEnabled(false);
+		} else {
+			paletteGrid.setModel(new ColorPaletteModel());	// detach from the palette model
+			paletteGrid = null;
+			panelColorPalette.setItemsEnabled(true);
+		}
+		if(scrollPalette != null) {
+			scrollPalette.setViewportView(gridView ? paletteGrid : panelColorPalette);
+			scrollPalette.revalidate();
+			scrollPalette.repaint();
+		}
+	}
+	
+	public boolean isPaletteGridView() {
+		return paletteGrid != null;
+	}
+	
+	/**
+	 * Get the grid that shows the palette colors
+	 * @return {@link ColorPaletteGrid} or <code>null</code> if the palette is not shown as a grid
+	 * @see #setPaletteGridView(boolean)
+	 */
+	public ColorPaletteGrid getColorPaletteGrid() {
+		return paletteGrid;
+	}
+	
+	/**
+	 * Snap the selected color to the closest color of the palette while the
+	 * selector of the color field or hue slider is dragged.
+	 * The distance of the colors is measured in the OKLab color space.
+	 * <p>The selector of the color field is moved to the palette color, but the
+	 * color field and the hue slider keep the hue that is dragged.</p>
+	 * @param snapToPalette enable or disable snapping
+	 */
+	public void setSnapToPalette(boolean snapToPalette) {
+		if(snapToPalette && paletteIndex == null) {
+			paletteIndex = new PaletteColorIndex(panelColorPalette.getModel());
+		} else if(!snapToPalette && paletteIndex != null) {
+			paletteIndex.dispose();
+			paletteIndex = null;
+		}
+	}
+	
+	public boolean isSnapToPalette() {
+		return paletteIndex != null;
+	}
+	
+	/**
+	 * Get the nearest color index over the palette colors
+	 * @return {@link PaletteColorIndex} or <code>null</code> if snap to palette is disabled
+	 */
+	public PaletteColorIndex getPaletteColorIndex() {
+		return paletteIndex;
+	}
+	
 	/**
 	 * Set maximum amount of color palette items
 	 * @param maxPaletteItems maximum platte items
@@ -472,7 +793,7 @@ public class ColorPicker extends JComponent {
 		btnCancel.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				cp.selColor = null;
+				cp.cancelled = true;
 				dialog.setVisible(false);
 			}
 		});
@@ -0,0 +1,386 @@
+package de.lars.colorpicker.components;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.lars.colorpicker.components.events.PaletteModelListener;
+
+/**
+ * Colors of a palette stored as packed RGB values in a ring buffer.
+ * <p>New colors are inserted at index <code>0</code>. If the maximum number of
+ * colors is reached, the {@link AddBehavior} decides which color is dropped.
+ * Listeners are notified about every single insertion, replacement and removal.
+ * Changes between {@link #beginUpdate()} and {@link #endUpdate()} are
+ * reported as a single {@link PaletteModelListener#onPaletteChanged()} event.</p>
+ * @author Lars O.
+ *
+ */
+public class ColorPaletteModel {
+
+	/** Behavior when adding a new color if the maximum number of colors has been reached */
+	public enum AddBehavior {
+		/** No new color can be added */
+		NONE,
+		/** Replace first color when full */
+		REPLACE_FIRST,
+		/** Replace last color when full */
+		REPLACE_LAST
+	}
+
+	protected List<PaletteModelListener> listListener;
+	protected int[] buffer;
+	protected int head;	// physical index of the first color
+	protected int size;
+	protected int maxItems;
+	protected AddBehavior addBehavior = AddBehavior.REPLACE_FIRST;
+	protected int updateDepth;
+	protected boolean changedDuringUpdate;
+
+	/**
+	 * Create a new palette model with unlimited amount of colors
+	 */
+	public ColorPaletteModel() {
+		this(-1);
+	}
+
+	/**
+	 * Create a new palette model
+	 * @param maxItems maximum number of colors, <code>-1</code> for unlimited
+	 */
+	public ColorPaletteModel(int maxItems) {
+		listListener = new ArrayList<>();
+		this.maxItems = maxItems;
+		buffer = new int[maxItems > 0 ? maxItems : 16];
+	}
+
+
+	/**
+	 * Add a new color at index <code>0</code>
+	 * @param rgb packed RGB value
+	 * @return <code>false</code> if the palette is full and {@link AddBehavior#NONE} is set
+	 */
+	public boolean addColor(int rgb) {
+		if(maxItems <= -1 || size < maxItems) {
+			ensureCapacity(size + 1);
+			head = physical(-1);
+			buffer[head] = rgb;
+			size++;
+			fireInserted(0, rgb);
+			return true;
+		}
+		if(size == 0)
+			return false;
+
+		switch(addBehavior) {
+			case REPLACE_FIRST:
+				// drop the last color, the freed slot becomes the new head
+				head = physical(-1);
+				buffer[head] = rgb;
+				fireRemoved(size - 1);
+				fireInserted(0, rgb);
+				return true;
+			case REPLACE_LAST:
+				// drop the first color and append the new color at the end
+				head = physical(1);
+				buffer[physical(size - 1)] = rgb;
+				fireRemoved(0);
+				fireInserted(size - 1, rgb);
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Add a new color at index <code>0</code>
+	 * @param color new color
+	 * @return <code>false</code> if the palette is full and {@link AddBehavior#NONE} is set
+	 */
+	public boolean addColor(Color color) {
+		return addColor(color.getRGB());
+	}
+
+	/**
+	 * Add multiple colors in a single update. Each color is added
+	 * like {@link #addColor(int)}, so the last color ends up at index <code>0</code>.
+	 * @param rgb packed RGB values
+	 */
+	public void addColors(int... rgb) {
+		beginUpdate();
+		try {
+			for(int c : rgb) {
+				addColor(c);
+			}
+		} finally {
+			endUpdate();
+		}
+	}
+
+	/**
+	 * Replace the color at the specified index
+	 * @param index index of the color
+	 * @param rgb new packed RGB value
+	 */
+	public void setColor(int index, int rgb) {
+		checkIndex(index);
+		buffer[physical(index)] = rgb;
+		fireReplaced(index, rgb);
+	}
+
+	/**
+	 * Remove the color at the specified index
+	 * @param index index of the color
+	 */
+	public void removeColor(int index) {
+		checkIndex(index);
+		if(index < size / 2) {
+			// shift the colors before the index to the right
+			for(int i = index; i > 0; i--) {
+				buffer[physical(i)] = buffer[physical(i - 1)];
+			}
+			head = physical(1);
+		} else {
+			// shift the colors after the index to the left
+			for(int i = index; i < size - 1; i++) {
+				buffer[physical(i)] = buffer[physical(i + 1)];
+			}
+		}
+		size--;
+		fireRemoved(index);
+	}
+
+	/**
+	 * Remove the colors from <code>fromIndex</code> (inclusive) to <code>toIndex</code> (exclusive)
+	 * in a single update
+	 * @param fromIndex index of the first color to remove
+	 * @param toIndex index after the last color to remove
+	 */
+	public void removeColors(int fromIndex, int toIndex) {
+		if(fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+			throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+		if(fromIndex == toIndex)
+			return;
+		int[] rgb = toArray();
+		System.arraycopy(rgb, toIndex, rgb, fromIndex, size - toIndex);
+		System.arraycopy(rgb, 0, buffer, 0, size - (toIndex - fromIndex));
+		head = 0;
+		size -= toIndex - fromIndex;
+		fireChanged();
+	}
+
+	/**
+	 * Replace all colors. Colors exceeding the maximum amount are ignored.
+	 * @param rgb packed RGB values
+	 */
+	public void setColors(int[] rgb) {
+		int count = maxItems > -1 ? Math.min(maxItems, rgb.length) : rgb.length;
+		ensureCapacity(count);
+		System.arraycopy(rgb, 0, buffer, 0, count);
+		head = 0;
+		size = count;
+		fireChanged();
+	}
+
+	/**
+	 * Remove all colors
+	 */
+	public void clear() {
+		head = 0;
+		size = 0;
+		fireChanged();
+	}
+
+	/**
+	 * Start a bulk update. Listeners are not notified until the
+	 * matching {@link #endUpdate()} is called. Updates can be nested.
+	 */
+	public void beginUpdate() {
+		updateDepth++;
+	}
+
+	/**
+	 * Finish a bulk update. If the model was changed, listeners receive
+	 * a single {@link PaletteModelListener#onPaletteChanged()} event.
+	 */
+	public void endUpdate() {
+		if(updateDepth == 0)
+			throw new IllegalStateException("endUpdate() called without beginUpdate()");
+		if(--updateDepth == 0 && changedDuringUpdate) {
+			changedDuringUpdate = false;
+			fireChanged();
+		}
+	}
+
+	/**
+	 * Is a bulk update in progress
+	 * @return <code>true</code> between {@link #beginUpdate()} and {@link #endUpdate()}
+	 */
+	public boolean isUpdating() {
+		return updateDepth > 0;
+	}
+
+	/**
+	 * Get the color at the specified index
+	 * @param index index of the color
+	 * @return packed RGB value
+	 */
+	public int getColor(int index) {
+		checkIndex(index);
+		return buffer[physical(index)];
+	}
+
+	/**
+	 * Get the number of colors
+	 * @return color count
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get all colors
+	 * @return new array of packed RGB values
+	 */
+	public int[] toArray() {
+		int[] rgb = new int[size];
+		int firstPart = Math.min(size, buffer.length - head);
+		System.arraycopy(buffer, head, rgb, 0, firstPart);
+		System.arraycopy(buffer, 0, rgb, firstPart, size - firstPart);
+		return rgb;
+	}
+
+
+	/**
+	 * Get the physical index in the buffer
+	 * @param index logical index, may be <code>-1</code>
+	 * @return index in {@link #buffer}
+	 */
+	protected int physical(int index) {
+		int i = head + index;
+		if(i < 0)
+			i += buffer.length;
+		else if(i >= buffer.length)
+			i -= buffer.length;
+		return i;
+	}
+
+	/**
+	 * Grow the buffer if necessary. The colors are moved to the start of the new buffer.
+	 * @param capacity minimum capacity
+	 */
+	protected void ensureCapacity(int capacity) {
+		if(capacity <= buffer.length)
+			return;
+		int newCapacity = Math.max(capacity, buffer.length * 2);
+		if(maxItems > 0)
+			newCapacity = Math.min(newCapacity, Math.max(capacity, maxItems));
+		int[] rgb = toArray();
+		buffer = new int[newCapacity];
+		System.arraycopy(rgb, 0, buffer, 0, rgb.length);
+		head = 0;
+	}
+
+	private void checkIndex(int index) {
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+
+	/**
+	 * Add a palette model listener
+	 * @param listener {@link PaletteModelListener}
+	 */
+	public void addPaletteModelListener(PaletteModelListener listener) {
+		listListener.add(listener);
+	}
+
+	/**
+	 * Remove a palette model listener
+	 * @param listener {@link PaletteModelListener}
+	 */
+	public void removePaletteModelListener(PaletteModelListener listener) {
+		listListener.remove(listener);
+	}
+
+	/**
+	 * Check if listeners should be notified. Changes during a
+	 * bulk update are only recorded.
+	 * @return <code>true</code> if no bulk update is in progress
+	 */
+	protected boolean canFire() {
+		if(updateDepth > 0) {
+			changedDuringUpdate = true;
+			return false;
+		}
+		return true;
+	}
+
+	protected void fireInserted(int index, int rgb) {
+		if(!canFire())
+			return;
+		for(PaletteModelListener l : listListener) {
+			l.onColorInserted(index, rgb);
+		}
+	}
+
+	protected void fireReplaced(int index, int rgb) {
+		if(!canFire())
+			return;
+		for(PaletteModelListener l : listListener) {
+			l.onColorReplaced(index, rgb);
+		}
+	}
+
+	protected void fireRemoved(int index) {
+		if(!canFire())
+			return;
+		for(PaletteModelListener l : listListener) {
+			l.onColorRemoved(index);
+		}
+	}
+
+	protected void fireChanged() {
+		if(!canFire())
+			return;
+		for(PaletteModelListener l : listListener) {
+			l.onPaletteChanged();
+		}
+	}
+
+
+	/**
+	 * Get the maximum amount of colors
+	 * @return maximum amount, <code>-1</code> for unlimited
+	 */
+	public int getMaxItems() {
+		return maxItems;
+	}
+
+	/**
+	 * Set the maximum amount of colors. Exceeding colors at the end are removed.
+	 * @param maxItems maximum amount, <code>-1</code> for unlimited
+	 */
+	public void setMaxItems(int maxItems) {
+		this.maxItems = maxItems;
+		if(maxItems > -1 && size > maxItems) {
+			size = maxItems;
+			fireChanged();
+		}
+		if(maxItems > 0 && buffer.length > maxItems) {
+			int[] rgb = toArray();
+			buffer = new int[maxItems];
+			System.arraycopy(rgb, 0, buffer, 0, rgb.length);
+			head = 0;
+		}
+	}
+
+	public AddBehavior getAddBehavior() {
+		return addBehavior;
+	}
+
+	public void setAddBehavior(AddBehavior addBehavior) {
+		this.addBehavior = addBehavior;
+	}
+
+}
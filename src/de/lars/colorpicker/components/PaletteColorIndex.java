@@ -0,0 +1,368 @@
+package de.lars.colorpicker.components;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import de.lars.colorpicker.components.events.PaletteModelListener;
+import de.lars.colorpicker.utils.ColorUitl;
+
+/**
+ * Nearest color search over the colors of a {@link ColorPaletteModel}.
+ * <p>The colors are stored in a k-d tree in the OKLab color space, so the distance
+ * between two colors matches the perceived difference. Queries take logarithmic time.
+ * The index listens to the model: inserted colors are added to the tree and removed
+ * colors are marked as deleted, the tree is only rebuilt when it becomes unbalanced.</p>
+ * <p>The index is not thread safe and should be used on the thread that changes the model.</p>
+ * @author Lars O.
+ *
+ */
+public class PaletteColorIndex {
+
+	private ColorPaletteModel model;
+
+	// colors of the model in the same order, to know which color was removed
+	private int[] colors = new int[16];
+	private int colorCount;
+
+	// k-d tree nodes, every distinct color has one node
+	private float[] nodeL = new float[16], nodeA = new float[16], nodeB = new float[16];
+	private int[] nodeRgb = new int[16];
+	private int[] nodeRefs = new int[16];	// number of palette entries with this color, 0 = deleted
+	private int[] left = new int[16], right = new int[16];
+	private int nodes;
+	private int root = -1;
+	private final HashMap<Integer, Integer> nodeOfColor = new HashMap<>();
+	private int liveNodes;
+	private int insertedSinceBuild;
+
+	// query state
+	private final float[] lab = new float[3];
+	private int bestNode;
+	private float bestDist;
+	private int[] kNodes;
+	private float[] kDists;
+	private int kFound;
+
+	/**
+	 * Create an index over the colors of a model
+	 * @param model palette model
+	 */
+	public PaletteColorIndex(ColorPaletteModel model) {
+		this.model = model;
+		model.addPaletteModelListener(modelListener);
+		rebuild(model.toArray());
+	}
+
+	/**
+	 * Create an index over a fixed set of colors
+	 * @param rgb packed RGB values
+	 */
+	public PaletteColorIndex(int[] rgb) {
+		rebuild(rgb);
+	}
+
+	/**
+	 * Stop listening to the model
+	 */
+	public void dispose() {
+		if(model != null) {
+			model.removePaletteModelListener(modelListener);
+			model = null;
+		}
+	}
+
+
+	/**
+	 * Get the palette color that is closest to the specified color
+	 * @param rgb packed RGB value
+	 * @return packed RGB value of the closest palette color or <code>rgb</code> if the index is empty
+	 */
+	public int nearest(int rgb) {
+		if(liveNodes == 0)
+			return rgb;
+		ColorUitl.rgbToOklab(rgb, lab);
+		bestNode = -1;
+		bestDist = Float.MAX_VALUE;
+		searchNearest(root, 0);
+		return nodeRgb[bestNode];
+	}
+
+	/**
+	 * Get the <code>k</code> distinct palette colors that are closest to the specified color
+	 * @param rgb packed RGB value
+	 * @param k maximum number of colors
+	 * @param result array with at least <code>k</code> elements for the packed RGB values, closest color first
+	 * @return number of colors written to <code>result</code>
+	 */
+	public int nearest(int rgb, int k, int[] result) {
+		if(k <= 0 || liveNodes == 0)
+			return 0;
+		if(kNodes == null || kNodes.length < k) {
+			kNodes = new int[k];
+			kDists = new float[k];
+		}
+		ColorUitl.rgbToOklab(rgb, lab);
+		kFound = 0;
+		searchNearest(root, 0, k);
+		for(int i = 0; i < kFound; i++) {
+			result[i] = nodeRgb[kNodes[i]];
+		}
+		return kFound;
+	}
+
+	/**
+	 * Get the number of distinct colors
+	 * @return color count
+	 */
+	public int size() {
+		return liveNodes;
+	}
+
+	public boolean isEmpty() {
+		return liveNodes == 0;
+	}
+
+
+	private void searchNearest(int node, int axis) {
+		while(node != -1) {
+			float d = distance(node);
+			if(d < bestDist && nodeRefs[node] > 0) {
+				bestDist = d;
+				bestNode = node;
+			}
+			float diff = lab[axis] - coordinate(node, axis);
+			int near = diff < 0 ? left[node] : right[node];
+			int far = diff < 0 ? right[node] : left[node];
+			int nextAxis = axis == 2 ? 0 : axis + 1;
+			searchNearest(near, nextAxis);
+			// the far side can only contain a closer color if the splitting plane is closer than the best match
+			if(diff * diff >= bestDist)
+				return;
+			node = far;
+			axis = nextAxis;
+		}
+	}
+
+	private void searchNearest(int node, int axis, int k) {
+		while(node != -1) {
+			if(nodeRefs[node] > 0)
+				offer(node, distance(node), k);
+			float diff = lab[axis] - coordinate(node, axis);
+			int near = diff < 0 ? left[node] : right[node];
+			int far = diff < 0 ? right[node] : left[node];
+			int nextAxis = axis == 2 ? 0 : axis + 1;
+			searchNearest(near, nextAxis, k);
+			if(kFound == k && diff * diff >= kDists[k - 1])
+				return;
+			node = far;
+			axis = nextAxis;
+		}
+	}
+
+	/**
+	 * Insert a node into the sorted list of the k closest nodes
+	 */
+	private void offer(int node, float dist, int k) {
+		if(kFound == k && dist >= kDists[k - 1])
+			return;
+		int i = kFound < k ? kFound++ : k - 1;
+		while(i > 0 && kDists[i - 1] > dist) {
+			kDists[i] = kDists[i - 1];
+			kNodes[i] = kNodes[i - 1];
+			i--;
+		}
+		kDists[i] = dist;
+		kNodes[i] = node;
+	}
+
+	private float distance(int node) {
+		float dl = lab[0] - nodeL[node];
+		float da = lab[1] - nodeA[node];
+		float db = lab[2] - nodeB[node];
+		return dl * dl + da * da + db * db;
+	}
+
+	private float coordinate(int node, int axis) {
+		return axis == 0 ? nodeL[node] : axis == 1 ? nodeA[node] : nodeB[node];
+	}
+
+
+	/**
+	 * Add a palette entry to the tree
+	 * @param rgb packed RGB value
+	 */
+	private void addColor(int rgb) {
+		Integer node = nodeOfColor.get(rgb);
+		if(node != null) {
+			if(nodeRefs[node]++ == 0)
+				liveNodes++;
+			return;
+		}
+		int n = createNode(rgb);
+		nodeRefs[n] = 1;
+		liveNodes++;
+		insertedSinceBuild++;
+		if(root == -1) {
+			root = n;
+		} else {
+			// descend to the leaf position of the new node
+			int parent = root;
+			int axis = 0;
+			while(true) {
+				boolean lower = coordinate(n, axis) < coordinate(parent, axis);
+				int child = lower ? left[parent] : right[parent];
+				if(child == -1) {
+					if(lower)
+						left[parent] = n;
+					else
+						right[parent] = n;
+					break;
+				}
+				parent = child;
+				axis = axis == 2 ? 0 : axis + 1;
+			}
+		}
+	}
+
+	/**
+	 * Remove a palette entry from the tree
+	 * @param rgb packed RGB value
+	 */
+	private void removeColor(int rgb) {
+		Integer node = nodeOfColor.get(rgb);
+		if(node == null || nodeRefs[node] == 0)
+			return;
+		if(--nodeRefs[node] == 0)
+			liveNodes--;	// deleted nodes are kept until the next rebuild
+	}
+
+	/**
+	 * Rebuild the tree if too many nodes were inserted at the leafs
+	 * or too many deleted nodes have accumulated
+	 */
+	private void rebalance() {
+		int deleted = nodes - liveNodes;
+		if((insertedSinceBuild > 16 && insertedSinceBuild > liveNodes / 2)
+				|| (deleted > 16 && deleted > liveNodes)) {
+			rebuild(Arrays.copyOf(colors, colorCount));
+		}
+	}
+
+	/**
+	 * Build a balanced tree from the specified colors
+	 * @param rgb packed RGB values of the palette
+	 */
+	private void rebuild(int[] rgb) {
+		colors = Arrays.copyOf(rgb, Math.max(16, rgb.length));
+		colorCount = rgb.length;
+
+		nodes = 0;
+		nodeOfColor.clear();
+		for(int c : rgb) {
+			Integer node = nodeOfColor.get(c);
+			if(node == null) {
+				node = createNode(c);
+				nodeOfColor.put(c, node);
+			}
+			nodeRefs[node]++;
+		}
+		liveNodes = nodes;
+		insertedSinceBuild = 0;
+
+		int[] order = new int[nodes];
+		for(int i = 0; i < nodes; i++) {
+			order[i] = i;
+		}
+		root = build(order, new long[nodes], 0, nodes, 0);
+	}
+
+	private int build(int[] order, long[] keys, int from, int to, int axis) {
+		if(from >= to)
+			return -1;
+		// sort the nodes by coordinate as primitive keys: coordinate in the high, node in the low 32 bits
+		for(int i = from; i < to; i++) {
+			int bits = Float.floatToIntBits(coordinate(order[i], axis));
+			bits ^= (bits >> 31) & 0x7FFFFFFF;	// negative floats are ordered reversed
+			keys[i] = ((long) bits << 32) | order[i];
+		}
+		Arrays.sort(keys, from, to);
+		for(int i = from; i < to; i++) {
+			order[i] = (int) keys[i];
+		}
+		int mid = (from + to) >>> 1;
+		// equal coordinates must be on the right side
+		while(mid > from && coordinate(order[mid - 1], axis) == coordinate(order[mid], axis)) {
+			mid--;
+		}
+		int node = order[mid];
+		int nextAxis = axis == 2 ? 0 : axis + 1;
+		left[node] = build(order, keys, from, mid, nextAxis);
+		right[node] = build(order, keys, mid + 1, to, nextAxis);
+		return node;
+	}
+
+	private int createNode(int rgb) {
+		if(nodes == nodeRgb.length) {
+			int capacity = nodes * 2;
+			nodeL = Arrays.copyOf(nodeL, capacity);
+			nodeA = Arrays.copyOf(nodeA, capacity);
+			nodeB = Arrays.copyOf(nodeB, capacity);
+			nodeRgb = Arrays.copyOf(nodeRgb, capacity);
+			nodeRefs = Arrays.copyOf(nodeRefs, capacity);
+			left = Arrays.copyOf(left, capacity);
+			right = Arrays.copyOf(right, capacity);
+		}
+		int n = nodes++;
+		float[] lab = ColorUitl.rgbToOklab(rgb, null);
+		nodeL[n] = lab[0];
+		nodeA[n] = lab[1];
+		nodeB[n] = lab[2];
+		nodeRgb[n] = rgb;
+		nodeRefs[n] = 0;
+		left[n] = -1;
+		right[n] = -1;
+		nodeOfColor.put(rgb, n);
+		return n;
+	}
+
+
+	/**
+	 * Keeps the tree in sync with the model
+	 */
+	private PaletteModelListener modelListener = new PaletteModelListener() {
+		@Override
+		public void onColorInserted(int index, int rgb) {
+			if(colorCount == colors.length)
+				colors = Arrays.copyOf(colors, colorCount * 2);
+			System.arraycopy(colors, index, colors, index + 1, colorCount - index);
+			colors[index] = rgb;
+			colorCount++;
+			addColor(rgb);
+			rebalance();
+		}
+
+		@Override
+		public void onColorReplaced(int index, int rgb) {
+			int old = colors[index];
+			colors[index] = rgb;
+			addColor(rgb);
+			removeColor(old);
+			rebalance();
+		}
+
+		@Override
+		public void onColorRemoved(int index) {
+			int old = colors[index];
+			System.arraycopy(colors, index + 1, colors, index, colorCount - index - 1);
+			colorCount--;
+			removeColor(old);
+			rebalance();
+		}
+
+		@Override
+		public void onPaletteChanged() {
+			rebuild(model.toArray());
+		}
+	};
+
+}
@@ -0,0 +1,203 @@
+package de.lars.colorpicker.components;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import de.lars.colorpicker.components.ColorPaletteModel.AddBehavior;
+import de.lars.colorpicker.components.events.PaletteStoreListener;
+
+/**
+ * Thread safe store of palette colors that can be shared by multiple color pickers.
+ * <p>The colors are held in immutable, versioned {@link Snapshot}s. Reading the current
+ * snapshot is a single volatile read and never blocks, changes replace the snapshot
+ * with a compare-and-set. Listeners are notified after every change.</p>
+ * @author Lars O.
+ *
+ */
+public class PaletteStore {
+
+	private static final PaletteStore sharedStore = new PaletteStore();
+
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+	private final CopyOnWriteArrayList<PaletteStoreListener> listListener = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Get the store that is shared by all color pickers
+	 * @return shared {@link PaletteStore}
+	 */
+	public static PaletteStore getShared() {
+		return sharedStore;
+	}
+
+
+	/**
+	 * Get the current colors
+	 * @return current {@link Snapshot}
+	 */
+	public Snapshot getSnapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * Replace all colors
+	 * @param rgb packed RGB values
+	 * @return new {@link Snapshot}
+	 */
+	public Snapshot setColors(int[] rgb) {
+		final int[] colors = rgb.clone();
+		return update(new UnaryOperator<int[]>() {
+			@Override
+			public int[] apply(int[] t) {
+				return colors;
+			}
+		});
+	}
+
+	/**
+	 * Add a color like {@link ColorPaletteModel#addColor(int)} does
+	 * @param rgb packed RGB value
+	 * @param maxItems maximum number of colors, <code>-1</code> for unlimited
+	 * @param addBehavior what to do if the maximum number of colors is reached
+	 * @return new {@link Snapshot}
+	 */
+	public Snapshot addColor(final int rgb, final int maxItems, final AddBehavior addBehavior) {
+		return update(new UnaryOperator<int[]>() {
+			@Override
+			public int[] apply(int[] colors) {
+				ColorPaletteModel model = new ColorPaletteModel(maxItems);
+				model.setAddBehavior(addBehavior);
+				model.setColors(colors);
+				model.addColor(rgb);
+				return model.toArray();
+			}
+		});
+	}
+
+	/**
+	 * Atomically change the colors. The function may be called multiple times
+	 * if other threads change the store concurrently, so it must not have side effects.
+	 * @param function receives a copy of the current colors and returns the new colors
+	 * @return new {@link Snapshot}
+	 */
+	public Snapshot update(UnaryOperator<int[]> function) {
+		Snapshot prev, next;
+		do {
+			prev = snapshot.get();
+			int[] colors = function.apply(prev.toArray());
+			next = new Snapshot(prev.version + 1, colors);
+		} while(!snapshot.compareAndSet(prev, next));
+		fireChanged(next);
+		return next;
+	}
+
+	/**
+	 * Replace the colors if the store was not changed since <code>expected</code> was read
+	 * @param expected previously read snapshot
+	 * @param rgb packed RGB values
+	 * @return new {@link Snapshot} or <code>null</code> if the store was changed in the meantime
+	 */
+	public Snapshot compareAndSet(Snapshot expected, int[] rgb) {
+		Snapshot next = new Snapshot(expected.version + 1, rgb.clone());
+		if(!snapshot.compareAndSet(expected, next))
+			return null;
+		fireChanged(next);
+		return next;
+	}
+
+
+	/**
+	 * Add a listener that is notified when the colors change
+	 * @param listener {@link PaletteStoreListener}
+	 */
+	public void addPaletteStoreListener(PaletteStoreListener listener) {
+		listListener.addIfAbsent(listener);
+	}
+
+	/**
+	 * Remove a listener
+	 * @param listener {@link PaletteStoreListener}
+	 */
+	public void removePaletteStoreListener(PaletteStoreListener listener) {
+		listListener.remove(listener);
+	}
+
+	protected void fireChanged(Snapshot snapshot) {
+		for(PaletteStoreListener l : listListener) {
+			l.onPaletteStoreChanged(snapshot);
+		}
+	}
+
+
+	/**
+	 * Immutable colors of a {@link PaletteStore}
+	 */
+	public static final class Snapshot {
+		static final Snapshot EMPTY = new Snapshot(0, new int[0]);
+
+		private final long version;
+		private final int[] colors;
+
+		private Snapshot(long version, int[] colors) {
+			this.version = version;
+			this.colors = colors;
+		}
+
+		/**
+		 * Get the version of this snapshot. Every change of the store increments the version.
+		 * @return version
+		 */
+		public long getVersion() {
+			return version;
+		}
+
+		/**
+		 * Get the number of colors
+		 * @return color count
+		 */
+		public int size() {
+			return colors.length;
+		}
+
+		/**
+		 * Get the color at the specified index
+		 * @param index index of the color
+		 * @return packed RGB value
+		 */
+		public int getColor(int index) {
+			return colors[index];
+		}
+
+		/**
+		 * Get all colors
+		 * @return new array of packed RGB values
+		 */
+		public int[] toArray() {
+			return colors.clone();
+		}
+
+		/**
+		 * Get all colors as {@link Color} objects
+		 * @return new color array
+		 */
+		public Color[] toColors() {
+			Color[] result = new Color[colors.length];
+			for(int i = 0; i < colors.length; i++) {
+				result[i] = new Color(colors[i]);
+			}
+			return result;
+		}
+
+		/**
+		 * Check if this snapshot contains the specified colors
+		 * @param rgb packed RGB values
+		 * @return <code>true</code> if the colors are equal
+		 */
+		public boolean hasColors(int[] rgb) {
+			return Arrays.equals(colors, rgb);
+		}
+	}
+
+}
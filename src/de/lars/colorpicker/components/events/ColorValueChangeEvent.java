@@ -6,5 +6,15 @@ public interface ColorValueChangeEvent {
 	
 	void onColorValueChanged(Color color);
 	void onHueValueChanged(float hue);
+	
+	/**
+	 * Invoked when the color changes. Override this method to receive the
+	 * color without creating a {@link Color} object.
+	 * @param argb packed ARGB value of the color
+	 * @param hue hue of the color
+	 */
+	default void onColorValueChanged(int argb, float hue) {
+		onColorValueChanged(new Color(argb, true));
+	}
 
 }
@@ -0,0 +1,33 @@
+package de.lars.colorpicker.components.events;
+
+/**
+ * Listener for changes of a {@link de.lars.colorpicker.components.ColorPaletteModel}
+ */
+public interface PaletteModelListener {
+
+	/**
+	 * Invoked when a color was inserted
+	 * @param index index of the new color
+	 * @param rgb packed RGB value
+	 */
+	void onColorInserted(int index, int rgb);
+
+	/**
+	 * Invoked when a color was replaced
+	 * @param index index of the replaced color
+	 * @param rgb new packed RGB value
+	 */
+	void onColorReplaced(int index, int rgb);
+
+	/**
+	 * Invoked when a color was removed
+	 * @param index index of the removed color
+	 */
+	void onColorRemoved(int index);
+
+	/**
+	 * Invoked when all colors may have changed
+	 */
+	void onPaletteChanged();
+
+}
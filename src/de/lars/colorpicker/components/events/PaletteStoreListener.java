@@ -0,0 +1,18 @@
+package de.lars.colorpicker.components.events;
+
+import de.lars.colorpicker.components.PaletteStore;
+
+/**
+ * Listener for changes of a {@link PaletteStore}
+ */
+public interface PaletteStoreListener {
+
+	/**
+	 * Invoked on the thread that changed the store. Snapshots of concurrent
+	 * changes may arrive out of order, compare {@link PaletteStore.Snapshot#getVersion()}
+	 * to ignore outdated snapshots.
+	 * @param snapshot new colors of the store
+	 */
+	void onPaletteStoreChanged(PaletteStore.Snapshot snapshot);
+
+}
@@ -0,0 +1,237 @@
+package de.lars.colorpicker.components.graphics;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memory bounded cache of rendered color fields shared by all {@link ColorPickerField}s.
+ * <p>Fields are stored by their size and the quantized hue and the least recently
+ * used fields are removed when the byte budget is exceeded.
+ * Cached images are shared and must not be modified. Only the exact render modes
+ * use the cache, {@link ColorPickerField.RenderMode#GRADIENT} fields are never stored.</p>
+ * @author Lars O.
+ *
+ */
+public class ColorFieldCache {
+
+	private static boolean enabled = false;
+	private static boolean softReferences = false;
+	private static long maxBytes = 32L * 1024 * 1024;
+	private static int hueSteps = 3600;
+
+	private static final LinkedHashMap<Long, CacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true);
+	private static long usedBytes;
+	private static long hitCount, missCount;
+
+
+	/**
+	 * Get the quantization step of the hue value
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @return step <code>0..hueSteps-1</code>
+	 */
+	public static synchronized int getHueStep(float hue) {
+		int step = Math.round((hue - (float) Math.floor(hue)) * hueSteps);
+		return step >= hueSteps ? 0 : step;
+	}
+
+	/**
+	 * Get the hue value of a quantization step
+	 * @param step step <code>0..hueSteps-1</code>
+	 * @return hue value <code>(0.0F..1.0F)</code>
+	 */
+	public static synchronized float getHue(int step) {
+		return (float) step / hueSteps;
+	}
+
+	/**
+	 * Check if a field of the specified size can be stored.
+	 * Fields bigger than a quarter of the byte budget are not cached.
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @return <code>true</code> if the cache is enabled and the field is small enough
+	 */
+	public static synchronized boolean isCacheable(int width, int height) {
+		return enabled && getBytes(width, height) <= maxBytes / 4;
+	}
+
+	/**
+	 * Get a cached field
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @param hueStep quantized hue ({@link #getHueStep(float)})
+	 * @return cached image or <code>null</code> if the field is not cached
+	 */
+	public static synchronized BufferedImage get(int width, int height, int hueStep) {
+		Long key = getKey(width, height, hueStep);
+		CacheEntry entry = cache.get(key);
+		BufferedImage image = entry != null ? entry.getImage() : null;
+		if(image == null) {
+			if(entry != null) {
+				// soft reference was cleared
+				cache.remove(key);
+				usedBytes -= entry.bytes;
+			}
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		return image;
+	}
+
+	/**
+	 * Store a rendered field. The image must not be modified afterwards.
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @param hueStep quantized hue ({@link #getHueStep(float)})
+	 * @param image rendered field
+	 */
+	public static synchronized void put(int width, int height, int hueStep, BufferedImage image) {
+		if(!isCacheable(width, height))
+			return;
+		CacheEntry entry = new CacheEntry(image, getBytes(width, height), softReferences);
+		CacheEntry prev = cache.put(getKey(width, height, hueStep), entry);
+		if(prev != null)
+			usedBytes -= prev.bytes;
+		usedBytes += entry.bytes;
+		trim();
+	}
+
+	/**
+	 * Remove all cached fields
+	 */
+	public static synchronized void clear() {
+		cache.clear();
+		usedBytes = 0;
+	}
+
+	/**
+	 * Remove least recently used fields until the byte budget is met
+	 */
+	private static void trim() {
+		Iterator<Map.Entry<Long, CacheEntry>> it = cache.entrySet().iterator();
+		while(usedBytes > maxBytes && it.hasNext()) {
+			usedBytes -= it.next().getValue().bytes;
+			it.remove();
+		}
+	}
+
+	private static Long getKey(int width, int height, int hueStep) {
+		return ((long) width << 44) | ((long) height << 24) | hueStep;
+	}
+
+	private static long getBytes(int width, int height) {
+		return (long) width * height * 4;	// TYPE_INT_RGB
+	}
+
+
+	public static synchronized boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enable or disable the cache. Disabling it removes all cached fields.
+	 * @param enabled use the cache?
+	 */
+	public static synchronized void setEnabled(boolean enabled) {
+		ColorFieldCache.enabled = enabled;
+		if(!enabled)
+			clear();
+	}
+
+	public static synchronized long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Set the byte budget of the cache
+	 * @param maxBytes maximum number of bytes used by cached images
+	 */
+	public static synchronized void setMaxBytes(long maxBytes) {
+		ColorFieldCache.maxBytes = maxBytes;
+		trim();
+	}
+
+	public static synchronized int getHueSteps() {
+		return hueSteps;
+	}
+
+	/**
+	 * Set the number of steps the hue is quantized to. Changing it removes all cached fields.
+	 * @param hueSteps number of hue steps <code>(1..16777215)</code>
+	 */
+	public static synchronized void setHueSteps(int hueSteps) {
+		if(hueSteps < 1 || hueSteps >= (1 << 24))
+			throw new IllegalArgumentException("Hue steps out of range: " + hueSteps);
+		ColorFieldCache.hueSteps = hueSteps;
+		clear();
+	}
+
+	public static synchronized boolean isSoftReferences() {
+		return softReferences;
+	}
+
+	/**
+	 * Hold newly cached images with soft references, so they can be
+	 * collected by the garbage collector when memory runs low
+	 * @param softReferences use soft references?
+	 */
+	public static synchronized void setSoftReferences(boolean softReferences) {
+		ColorFieldCache.softReferences = softReferences;
+	}
+
+	/**
+	 * Get the number of bytes used by cached images
+	 * @return used bytes
+	 */
+	public static synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+
+	/**
+	 * Get the number of cached fields
+	 * @return entry count
+	 */
+	public static synchronized int getEntryCount() {
+		return cache.size();
+	}
+
+	public static synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public static synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Reset hit and miss counter
+	 */
+	public static synchronized void resetStatistics() {
+		hitCount = 0;
+		missCount = 0;
+	}
+
+
+	/**
+	 * Cached image held by a strong or soft reference
+	 */
+	private static class CacheEntry {
+		private final BufferedImage image;
+		private final SoftReference<BufferedImage> softImage;
+		private final long bytes;
+
+		CacheEntry(BufferedImage image, long bytes, boolean soft) {
+			this.image = soft ? null : image;
+			this.softImage = soft ? new SoftReference<>(image) : null;
+			this.bytes = bytes;
+		}
+
+		BufferedImage getImage() {
+			return image != null ? image : softImage.get();
+		}
+	}
+
+}
@@ -0,0 +1,275 @@
+package de.lars.colorpicker.components.graphics;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders the saturation/brightness field of the ColorPicker
+ * into a packed RGB pixel array
+ * @author Lars O.
+ *
+ */
+public class ColorFieldRenderer {
+	
+	/**
+	 * Minimum number of pixels a field must have to be rendered in parallel.
+	 * Smaller fields are rendered faster by a single thread.
+	 */
+	private static volatile int minParallelPixels = 512 * 512;
+	
+	/**
+	 * Minimum number of rows of a band that is rendered by one task
+	 */
+	private static final int MIN_BAND_ROWS = 16;
+	
+	private static int parallelism = Runtime.getRuntime().availableProcessors();
+	private static ForkJoinPool pool;
+	
+	/**
+	 * Render the color field for the specified hue. Saturation increases from
+	 * left to right, brightness decreases from top to bottom.
+	 * <p>Uses the same math as {@link java.awt.Color#HSBtoRGB(float, float, float)}
+	 * but without allocating any objects.</p>
+	 * @param pixels target array with at least <code>width * height</code> elements
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 */
+	public static void render(int[] pixels, int width, int height, float hue) {
+		renderRows(pixels, width, height, hue, 0, height);
+	}
+	
+	/**
+	 * Paint the color field with two gradient fills: a horizontal gradient from white
+	 * to the pure hue color, overlaid with a vertical gradient from transparent to black.
+	 * Java2D can accelerate these fills on supported pipelines.
+	 * @param g2d Graphics instance
+	 * @param x x position of the field
+	 * @param y y position of the field
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 */
+	public static void paintGradient(Graphics2D g2d, int x, int y, int width, int height, float hue) {
+		Paint paint = g2d.getPaint();
+		// gradient end points are placed on the centers of the first and last pixel
+		g2d.setPaint(new GradientPaint(x + 0.5f, 0f, Color.WHITE,
+				x + width - 0.5f, 0f, new Color(Color.HSBtoRGB(hue, 1f, 1f))));
+		g2d.fillRect(x, y, width, height);
+		g2d.setPaint(new GradientPaint(0f, y + 0.5f, new Color(0, 0, 0, 0),
+				0f, y + height - 0.5f, Color.BLACK));
+		g2d.fillRect(x, y, width, height);
+		g2d.setPaint(paint);
+	}
+	
+	/**
+	 * Render the color field in row bands on a shared fork-join pool.
+	 * Falls back to {@link #render(int[], int, int, float)} if the field is smaller
+	 * than {@link #getMinParallelPixels()} or the parallelism is <code>1</code>.
+	 * @param pixels target array with at least <code>width * height</code> elements
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 */
+	public static void renderParallel(int[] pixels, int width, int height, float hue) {
+		ForkJoinPool pool = getPool();
+		if(pool == null || (long) width * height < minParallelPixels) {
+			render(pixels, width, height, hue);
+			return;
+		}
+		int bandRows = Math.max(MIN_BAND_ROWS, height / (pool.getParallelism() * 4));
+		pool.invoke(new BandTask(pixels, width, height, hue, null, 0, height, bandRows));
+	}
+	
+	/**
+	 * Compose the color field for the specified hue from precomputed weight planes
+	 * @param pixels target array with at least <code>width * height</code> elements
+	 * @param weights weight planes of the field size
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 */
+	public static void compose(int[] pixels, ColorFieldWeights weights, float hue) {
+		weights.composeRows(pixels, hue, 0, weights.getHeight());
+	}
+	
+	/**
+	 * Compose the color field from precomputed weight planes in row bands on the shared fork-join pool.
+	 * Falls back to {@link #compose(int[], ColorFieldWeights, float)} for small fields.
+	 * @param pixels target array with at least <code>width * height</code> elements
+	 * @param weights weight planes of the field size
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 */
+	public static void composeParallel(int[] pixels, ColorFieldWeights weights, float hue) {
+		int width = weights.getWidth(), height = weights.getHeight();
+		ForkJoinPool pool = getPool();
+		if(pool == null || (long) width * height < minParallelPixels) {
+			compose(pixels, weights, hue);
+			return;
+		}
+		int bandRows = Math.max(MIN_BAND_ROWS, height / (pool.getParallelism() * 4));
+		pool.invoke(new BandTask(pixels, width, height, hue, weights, 0, height, bandRows));
+	}
+	
+	/**
+	 * Render the rows <code>startRow</code> (inclusive) to <code>endRow</code> (exclusive)
+	 * of the color field for the specified hue.
+	 * @param pixels target array with at least <code>width * height</code> elements
+	 * @param width width of the field
+	 * @param height height of the whole field
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @param startRow first row to render
+	 * @param endRow row after the last row to render
+	 */
+	public static void renderRows(int[] pixels, int width, int height, float hue, int startRow, int endRow) {
+		renderRows(pixels, 0, width, width, height, hue, startRow, endRow);
+	}
+	
+	/**
+	 * Render the rows <code>startRow</code> (inclusive) to <code>endRow</code> (exclusive)
+	 * of the color field into a part of an array. Row <code>y</code> is written to
+	 * <code>pixels[offset + y * scanline]</code>.
+	 * @param pixels target array
+	 * @param offset index of the first pixel of the field
+	 * @param scanline distance between two rows in the array, <code>0</code> writes every row to the same position
+	 * @param width width of the field
+	 * @param height height of the whole field
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @param startRow first row to render
+	 * @param endRow row after the last row to render
+	 */
+	public static void renderRows(int[] pixels, int offset, int scanline, int width, int height, float hue, int startRow, int endRow) {
+		float sStep = width > 1 ? 1f / (width - 1) : 0f;	// saturation steps
+		float bStep = height > 1 ? 1f / (height - 1) : 0f;	// brightness steps
+
+		// the hue sector and its fraction are the same for every pixel
+		float h = (hue - (float) Math.floor(hue)) * 6f;
+		int sector = (int) h;
+		float f = h - (float) Math.floor(h);
+
+		// each sector uses the brightness (v), the minimum (p) and one ramp value (q or t)
+		int vShift, pShift, xShift;
+		float xFactor;
+		switch(sector) {
+			case 0:  vShift = 16; xShift = 8;  pShift = 0;  xFactor = 1f - f; break;
+			case 1:  xShift = 16; vShift = 8;  pShift = 0;  xFactor = f; break;
+			case 2:  pShift = 16; vShift = 8;  xShift = 0;  xFactor = 1f - f; break;
+			case 3:  pShift = 16; xShift = 8;  vShift = 0;  xFactor = f; break;
+			case 4:  xShift = 16; pShift = 8;  vShift = 0;  xFactor = 1f - f; break;
+			default: vShift = 16; pShift = 8;  xShift = 0;  xFactor = f; break;
+		}
+
+		for(int y = startRow; y < endRow; y++) {	// brightness
+			int i = offset + y * scanline;
+			float b = 1f - y * bStep;
+			if(b < 0f)
+				b = 0f;
+			int v = (int) (b * 255f + 0.5f);
+			int vBits = 0xff000000 | (v << vShift);
+			float bsStep = b * sStep;
+
+			for(int x = 0; x < width; x++) {	// saturation
+				float bs = x * bsStep;	// brightness * saturation
+				int p = (int) ((b - bs) * 255f + 0.5f);
+				int q = (int) ((b - bs * xFactor) * 255f + 0.5f);
+				pixels[i++] = vBits | (p << pShift) | (q << xShift);
+			}
+		}
+	}
+
+	
+	/**
+	 * Get the minimum number of pixels a field must have to be rendered in parallel
+	 * @return pixel count
+	 */
+	public static synchronized int getMinParallelPixels() {
+		return minParallelPixels;
+	}
+	
+	/**
+	 * Set the minimum number of pixels a field must have to be rendered in parallel.
+	 * Smaller fields are rendered faster by a single thread.
+	 * @param minParallelPixels pixel count
+	 */
+	public static synchronized void setMinParallelPixels(int minParallelPixels) {
+		ColorFieldRenderer.minParallelPixels = minParallelPixels;
+	}
+	
+	/**
+	 * Get the number of threads used for parallel rendering
+	 * @return parallelism
+	 */
+	public static synchronized int getParallelism() {
+		return parallelism;
+	}
+	
+	/**
+	 * Set the number of threads used for parallel rendering.
+	 * A value of <code>1</code> or less disables parallel rendering.
+	 * <p>The old pool is not shut down, so renderings that already obtained it
+	 * can still use it. Its daemon threads terminate after being idle.</p>
+	 * @param parallelism number of threads
+	 */
+	public static synchronized void setParallelism(int parallelism) {
+		if(ColorFieldRenderer.parallelism == parallelism)
+			return;
+		ColorFieldRenderer.parallelism = parallelism;
+		pool = null;
+	}
+	
+	/**
+	 * Get the shared pool, creates it on first use
+	 * @return pool or <code>null</code> if parallel rendering is disabled
+	 */
+	static synchronized ForkJoinPool getPool() {
+		if(parallelism <= 1)
+			return null;
+		if(pool == null)
+			pool = new ForkJoinPool(parallelism);
+		return pool;
+	}
+	
+	
+	/**
+	 * Splits the field into row bands until a band is small enough to be rendered directly.
+	 * Bands are composed from the weight planes if they are set.
+	 */
+	private static class BandTask extends RecursiveAction {
+		private static final long serialVersionUID = 2790658416357431377L;
+		
+		private final int[] pixels;
+		private final int width, height;
+		private final float hue;
+		private final ColorFieldWeights weights;
+		private final int startRow, endRow;
+		private final int bandRows;
+		
+		BandTask(int[] pixels, int width, int height, float hue, ColorFieldWeights weights, int startRow, int endRow, int bandRows) {
+			this.pixels = pixels;
+			this.width = width;
+			this.height = height;
+			this.hue = hue;
+			this.weights = weights;
+			this.startRow = startRow;
+			this.endRow = endRow;
+			this.bandRows = bandRows;
+		}
+
+		@Override
+		protected void compute() {
+			if(endRow - startRow <= bandRows) {
+				if(weights != null)
+					weights.composeRows(pixels, hue, startRow, endRow);
+				else
+					renderRows(pixels, width, height, hue, startRow, endRow);
+				return;
+			}
+			int mid = (startRow + endRow) >>> 1;
+			invokeAll(new BandTask(pixels, width, height, hue, weights, startRow, mid, bandRows),
+					new BandTask(pixels, width, height, hue, weights, mid, endRow, bandRows));
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+package de.lars.colorpicker.components.graphics;
+
+import java.awt.Color;
+
+import de.lars.colorpicker.utils.LruCache;
+
+/**
+ * Hue independent weight planes of the color field.
+ * <p>Every pixel of the field is a blend of white, the pure hue color and black.
+ * The weights of white and of the hue color only depend on the position of the pixel,
+ * so they are calculated once per size and the field is composed from them
+ * with one multiply-add per channel when the hue changes.</p>
+ * @author Lars O.
+ *
+ */
+public class ColorFieldWeights {
+
+	/** Fixed point scale of the weights */
+	public static final int SCALE_BITS = 15;
+
+	private static final int SCALE = 1 << SCALE_BITS;
+
+	/** Weight planes of the recently used sizes */
+	private static final LruCache<Long, ColorFieldWeights> cache = new LruCache<>(2);
+
+	private final int width, height;
+	private final char[] white;	// weight of white
+	private final char[] pure;	// weight of the pure hue color
+
+	/**
+	 * Calculate the weight planes for the specified size
+	 * @param width width of the field
+	 * @param height height of the field
+	 */
+	public ColorFieldWeights(int width, int height) {
+		this.width = width;
+		this.height = height;
+		white = new char[width * height];
+		pure = new char[width * height];
+
+		float sStep = width > 1 ? 1f / (width - 1) : 0f;	// saturation steps
+		float bStep = height > 1 ? 1f / (height - 1) : 0f;	// brightness steps
+
+		int i = 0;
+		for(int y = 0; y < height; y++) {		// brightness
+			float b = 1f - y * bStep;
+			if(b < 0f)
+				b = 0f;
+
+			for(int x = 0; x < width; x++) {	// saturation
+				float s = Math.min(1f, x * sStep);
+				white[i] = (char) (b * (1f - s) * SCALE + 0.5f);
+				pure[i] = (char) (b * s * SCALE + 0.5f);
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Get the weight planes for the specified size.
+	 * The planes of the last used sizes are cached.
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @return {@link ColorFieldWeights}
+	 */
+	public static ColorFieldWeights get(int width, int height) {
+		Long key = ((long) width << 32) | height;
+		synchronized (cache) {
+			ColorFieldWeights weights = cache.get(key);
+			if(weights == null) {
+				weights = new ColorFieldWeights(width, height);
+				cache.put(key, weights);
+			}
+			return weights;
+		}
+	}
+
+	/**
+	 * Set the number of sizes for which the weight planes are cached
+	 * @param maxSizes maximum number of cached sizes
+	 */
+	public static void setCacheSize(int maxSizes) {
+		synchronized (cache) {
+			cache.setMaxEntries(maxSizes);
+		}
+	}
+
+	/**
+	 * Compose the rows <code>startRow</code> (inclusive) to <code>endRow</code> (exclusive)
+	 * of the color field for the specified hue.
+	 * @param pixels target array with at least <code>width * height</code> elements
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @param startRow first row to compose
+	 * @param endRow row after the last row to compose
+	 */
+	public void composeRows(int[] pixels, float hue, int startRow, int endRow) {
+		int rgb = Color.HSBtoRGB(hue, 1f, 1f);	// pure hue color
+		int r = (rgb >> 16) & 0xFF;
+		int g = (rgb >> 8) & 0xFF;
+		int b = rgb & 0xFF;
+		int round = SCALE / 2;
+
+		char[] white = this.white;
+		char[] pure = this.pure;
+		int end = endRow * width;
+		for(int i = startRow * width; i < end; i++) {
+			int w = white[i] * 255 + round;
+			int h = pure[i];
+			pixels[i] = 0xFF000000
+					| ((w + h * r) >> SCALE_BITS) << 16
+					| ((w + h * g) >> SCALE_BITS) << 8
+					| ((w + h * b) >> SCALE_BITS);
+		}
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+}
@@ -1,7 +1,9 @@
 package de.lars.colorpicker.components.graphics;
 
 import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 
 /**
  * Color field of the ColorPicker
@@ -10,9 +12,28 @@ import java.awt.image.BufferedImage;
  */
 public class ColorPickerField {
 	
-	private int width, height;
-	private BufferedImage bufferedImage;
-	private float currentHue;
+	/** Algorithm used to paint the color field */
+	public enum RenderMode {
+		/** Per-pixel {@link Color#getHSBColor(float, float, float)} and {@link BufferedImage#setRGB(int, int, int)}, kept as reference */
+		REFERENCE,
+		/** Primitive HSB math written straight into the pixel array of the image */
+		DIRECT,
+		/** Composed from cached hue independent weight planes ({@link ColorFieldWeights}) */
+		WEIGHT_PLANES,
+		/** Two Java2D gradient fills, see {@link ColorFieldRenderer#paintGradient(Graphics2D, int, int, int, int, float)} */
+		GRADIENT
+	}
+	
+	private volatile int width, height;
+	private volatile float currentHue;
+	private volatile BufferedImage bufferedImage;	// front buffer
+	private boolean sharedImage;	// front buffer is stored in the ColorFieldCache
+	private BufferedImage backImage;	// back buffer
+	private boolean sharedBackImage;
+	private BufferedImage lockedImage;	// front buffer that is currently drawn
+	private final Object bufferLock = new Object();
+	private volatile RenderMode renderMode = RenderMode.DIRECT;
+	private volatile boolean parallelRendering = true;
 	
 	/**
 	 * Creates a new color field with the specified width and height and an initial hue of <code>0F</code> (red)
@@ -38,13 +59,47 @@ public class ColorPickerField {
 	
 	/**
 	 * Paint the color field with the size {@link #width} x {@link #height}
+	 * into the back buffer and swap it with the front buffer
 	 */
 	private void paintBufferedImage() {
+		int width = this.width, height = this.height;
+		float hue = currentHue;
+		RenderMode mode = renderMode;
 		if(width <= 0 || height <= 0)
 			return;
 		
-		bufferedImage = null;
-		bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		if(mode == RenderMode.REFERENCE) {
+			swapBuffers(paintReference(width, height, hue), false);
+			return;
+		}
+		
+		// gradient fields differ slightly from the exact modes, they must not be shared through the cache
+		if(mode != RenderMode.GRADIENT && ColorFieldCache.isCacheable(width, height)) {
+			int step = ColorFieldCache.getHueStep(hue);
+			BufferedImage cached = ColorFieldCache.get(width, height, step);
+			if(cached == null) {
+				cached = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+				paintPixels(cached, width, height, ColorFieldCache.getHue(step), mode);
+				ColorFieldCache.put(width, height, step, cached);
+			}
+			swapBuffers(cached, true);
+			return;
+		}
+		
+		BufferedImage image = getBackBuffer(width, height);
+		paintPixels(image, width, height, hue, mode);
+		swapBuffers(image, false);
+	}
+	
+	/**
+	 * Paint the color field pixel by pixel using {@link Color#getHSBColor(float, float, float)}
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @return new image
+	 */
+	private BufferedImage paintReference(int width, int height, float hue) {
+		BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 		
 		float bStep = 1f / (height - 1);	// brightness steps
 		float sStep = 1f / (width - 1);		// saturation steps
@@ -55,7 +110,7 @@ public class ColorPickerField {
 			
 			for(int x = 0; x < width; x++) {	//saturation
 				
-				Color color = Color.getHSBColor(currentHue, s, b);
+				Color color = Color.getHSBColor(hue, s, b);
 				bufferedImage.setRGB(x, y, color.getRGB());
 				
 				// increase saturation
@@ -68,12 +123,115 @@ public class ColorPickerField {
 			// reset saturation
 			s = 0f;
 		}
+		return bufferedImage;
+	}
+	
+	/**
+	 * Paint the field into the image
+	 * @param image image of type {@link BufferedImage#TYPE_INT_RGB} with the size of the field
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @param mode render mode
+	 */
+	private void paintPixels(BufferedImage image, int width, int height, float hue, RenderMode mode) {
+		if(mode == RenderMode.GRADIENT) {
+			// drawing through Graphics2D keeps the image eligible for acceleration
+			Graphics2D g2d = image.createGraphics();
+			ColorFieldRenderer.paintGradient(g2d, 0, 0, width, height, hue);
+			g2d.dispose();
+			return;
+		}
+		
+		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		if(mode == RenderMode.WEIGHT_PLANES) {
+			ColorFieldWeights weights = ColorFieldWeights.get(width, height);
+			if(parallelRendering)
+				ColorFieldRenderer.composeParallel(pixels, weights, hue);
+			else
+				ColorFieldRenderer.compose(pixels, weights, hue);
+		} else if(parallelRendering) {
+			ColorFieldRenderer.renderParallel(pixels, width, height, hue);
+		} else {
+			ColorFieldRenderer.render(pixels, width, height, hue);
+		}
+	}
+	
+	/**
+	 * Compare the output of a render mode with the {@link RenderMode#REFERENCE} output
+	 * @param renderMode render mode to check
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @return maximum difference of a color channel <code>(0..255)</code>
+	 */
+	public static int getParityError(RenderMode renderMode, int width, int height, float hue) {
+		ColorPickerField field = new ColorPickerField(0, 0, hue);
+		field.setRenderMode(renderMode);
+		field.setParallelRendering(false);
+		
+		BufferedImage reference = field.paintReference(width, height, hue);
+		BufferedImage image = reference;
+		if(renderMode != RenderMode.REFERENCE) {
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			field.paintPixels(image, width, height, hue, renderMode);
+		}
+		
+		int maxError = 0;
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				int rgb1 = reference.getRGB(x, y);
+				int rgb2 = image.getRGB(x, y);
+				for(int shift = 0; shift <= 16; shift += 8) {
+					int error = Math.abs(((rgb1 >> shift) & 0xFF) - ((rgb2 >> shift) & 0xFF));
+					if(error > maxError)
+						maxError = error;
+				}
+			}
+		}
+		return maxError;
+	}
+	
+	/**
+	 * Get the back buffer to paint into. A new image is created if the back buffer
+	 * has a different size, is shared by the {@link ColorFieldCache} or is still being drawn.
+	 * @param width width of the field
+	 * @param height height of the field
+	 * @return image that can be painted
+	 */
+	private BufferedImage getBackBuffer(int width, int height) {
+		synchronized (bufferLock) {
+			BufferedImage image = backImage;
+			if(image == null || sharedBackImage || image == lockedImage
+					|| image.getWidth() != width || image.getHeight() != height) {
+				image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			}
+			return image;
+		}
+	}
+	
+	/**
+	 * Make the painted image the front buffer. The previous front buffer becomes the back buffer.
+	 * @param image painted image
+	 * @param shared image is stored in the {@link ColorFieldCache}
+	 */
+	private void swapBuffers(BufferedImage image, boolean shared) {
+		synchronized (bufferLock) {
+			if(image == bufferedImage)
+				return;
+			backImage = bufferedImage;
+			sharedBackImage = sharedImage;
+			bufferedImage = image;
+			sharedImage = shared;
+		}
 	}
 	
 	/**
 	 * Repaint color field
+	 * <p>May be called from any thread. The new field is painted into a back buffer
+	 * and becomes visible through {@link #getBufferedImage()} when finished.</p>
 	 */
-	public void update() {
+	public synchronized void update() {
 		paintBufferedImage();
 	}
 	
@@ -104,9 +262,35 @@ public class ColorPickerField {
 		this.height = height;
 	}
 
+	/**
+	 * Get the rendered field. The image may be shared with other fields
+	 * through the {@link ColorFieldCache} and must not be modified.
+	 * @return BufferedImage or <code>null</code> if the field has no size
+	 */
 	public BufferedImage getBufferedImage() {
 		return bufferedImage;
 	}
+	
+	/**
+	 * Get the rendered field and prevent that it is painted over while it is drawn.
+	 * Must be followed by {@link #unlockBufferedImage()}.
+	 * @return BufferedImage or <code>null</code> if the field has no size
+	 */
+	public BufferedImage lockBufferedImage() {
+		synchronized (bufferLock) {
+			lockedImage = bufferedImage;
+			return lockedImage;
+		}
+	}
+	
+	/**
+	 * Release the image returned by {@link #lockBufferedImage()}
+	 */
+	public void unlockBufferedImage() {
+		synchronized (bufferLock) {
+			lockedImage = null;
+		}
+	}
 
 	/**
 	 * Hue value of this field
@@ -124,4 +308,39 @@ public class ColorPickerField {
 		this.currentHue = currentHue;
 	}
 
+	/**
+	 * Get the algorithm used to paint the field
+	 * @return {@link RenderMode}
+	 */
+	public RenderMode getRenderMode() {
+		return renderMode;
+	}
+
+	/**
+	 * Set the algorithm used to paint the field
+	 * <p>Must be repainted manually</p>
+	 * @param renderMode new {@link RenderMode}
+	 */
+	public void setRenderMode(RenderMode renderMode) {
+		this.renderMode = renderMode;
+	}
+
+	/**
+	 * Check if the field is rendered in row bands on multiple threads
+	 * @return <code>true</code> if parallel rendering is enabled
+	 */
+	public boolean isParallelRendering() {
+		return parallelRendering;
+	}
+
+	/**
+	 * Enable or disable rendering the field in row bands on multiple threads.
+	 * Fields smaller than {@link ColorFieldRenderer#getMinParallelPixels()} are
+	 * always rendered by the calling thread.
+	 * @param parallelRendering render in parallel?
+	 */
+	public void setParallelRendering(boolean parallelRendering) {
+		this.parallelRendering = parallelRendering;
+	}
+
 }
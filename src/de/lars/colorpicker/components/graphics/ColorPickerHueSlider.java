@@ -1,15 +1,22 @@
 package de.lars.colorpicker.components.graphics;
 
-import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 
 /**
  * Color hue slider background of the ColorPicker
+ * <p>The hue gradient is the same for every slider, so all sliders draw
+ * a shared 1 pixel tall hue strip stretched to their size.</p>
  * @author Lars O.
  *
  */
 public class ColorPickerHueSlider {
 	
+	/** Widths of the shared hue strips */
+	private static final int[] STRIP_RESOLUTIONS = { 256, 1024, 4096 };
+	private static final BufferedImage[] hueStrips = new BufferedImage[STRIP_RESOLUTIONS.length];
+	
 	private int width, height;
 	private BufferedImage bufferedImage;
 	
@@ -21,7 +28,50 @@ public class ColorPickerHueSlider {
 	public ColorPickerHueSlider(int width, int height) {
 		this.width = width;
 		this.height = height;
-		paintBufferedImage();
+	}
+	
+	/**
+	 * Draw the hue slider background by stretching the shared hue strip
+	 * @param g2d Graphics instance, the interpolation hint is set to bilinear
+	 * @param x x position
+	 * @param y y position
+	 */
+	public void draw(Graphics2D g2d, int x, int y) {
+		if(width <= 0 || height <= 0)
+			return;
+		g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g2d.drawImage(getHueStrip(width), x, y, width, height, null);
+	}
+	
+	/**
+	 * Get the shared hue strip for the specified slider width.
+	 * Returns the smallest strip that is at least as wide as the slider.
+	 * @param width width of the slider
+	 * @return 1 pixel tall image from hue <code>0</code> (left) to <code>1</code> (right)
+	 */
+	public static BufferedImage getHueStrip(int width) {
+		int index = 0;
+		while(index < STRIP_RESOLUTIONS.length - 1 && STRIP_RESOLUTIONS[index] < width) {
+			index++;
+		}
+		synchronized (hueStrips) {
+			if(hueStrips[index] == null)
+				hueStrips[index] = paintHueStrip(STRIP_RESOLUTIONS[index]);
+			return hueStrips[index];
+		}
+	}
+	
+	/**
+	 * Paint a 1 pixel tall hue strip
+	 * @param width width of the strip
+	 * @return new image
+	 */
+	private static BufferedImage paintHueStrip(int width) {
+		BufferedImage strip = new BufferedImage(width, 1, BufferedImage.TYPE_INT_RGB);
+		int[] row = new int[width];
+		ColorPickerRenderer.renderHueRow(row, 0, width);
+		strip.setRGB(0, 0, width, 1, row, 0, width);
+		return strip;
 	}
 	
 	/**
@@ -33,29 +83,20 @@ public class ColorPickerHueSlider {
 		
 		bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 		
-		float hStep = 1f / (width - 1);	// hue steps
-		float h = 0f;	// hue
-		float b = 1f;	// brightness
-		float s = 1f;	// saturation
-		
-		for(int x = 0; x < width; x++) {
-			Color color = Color.getHSBColor(h, s, b);
-			
-			for(int y = 0; y < height; y++) {
-				bufferedImage.setRGB(x, y, color.getRGB());
-			}
-			
-			// increase hue
-			if((h += hStep) > 1f)
-				h = 1f;
+		int[] row = new int[width];
+		ColorPickerRenderer.renderHueRow(row, 0, width);
+		for(int y = 0; y < height; y++) {
+			bufferedImage.setRGB(0, y, width, 1, row, 0, width);
 		}
 	}
 	
 	/**
 	 * Repaint hue slider background
+	 * <p>The full size image is only painted again when it is requested
+	 * by {@link #getBufferedImage()}</p>
 	 */
 	public void update() {
-		paintBufferedImage();
+		bufferedImage = null;
 	}
 	
 	/**
@@ -85,7 +126,14 @@ public class ColorPickerHueSlider {
 		this.height = height;
 	}
 
+	/**
+	 * Get the hue slider background with the size of the slider.
+	 * Painted on first request, {@link #draw(Graphics2D, int, int)} does not need it.
+	 * @return BufferedImage or <code>null</code> if the slider has no size
+	 */
 	public BufferedImage getBufferedImage() {
+		if(bufferedImage == null)
+			paintBufferedImage();
 		return bufferedImage;
 	}
 
@@ -0,0 +1,381 @@
+package de.lars.colorpicker.components.graphics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders the color field and the hue slider without Swing components,
+ * for example to create thumbnails on a server.
+ * <p>The pixels are written as packed RGB values (alpha <code>255</code>) into a caller
+ * supplied <code>int[]</code>, {@link IntBuffer} or {@link BufferedImage}. Only primitive
+ * math is used, the AWT toolkit is never initialized, so the methods work in a headless JVM.
+ * {@link #renderAll(List)} renders many requests in parallel on the pool of the {@link ColorFieldRenderer}.</p>
+ * @author Lars O.
+ *
+ */
+public class ColorPickerRenderer {
+
+	/** Type of the rendered image */
+	public enum FieldType {
+		/** Saturation/brightness field of {@link ColorPickerField} for one hue */
+		COLOR_FIELD,
+		/** Background of {@link ColorPickerHueSlider}, hue from left to right, the hue parameter is ignored */
+		HUE_SLIDER
+	}
+
+	private ColorPickerRenderer() {
+	}
+
+
+	/**
+	 * Render into an array, the rows are stored one after the other
+	 * @param type field type
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @param width width of the image
+	 * @param height height of the image
+	 * @param pixels target array with at least <code>width * height</code> elements
+	 */
+	public static void render(FieldType type, float hue, int width, int height, int[] pixels) {
+		render(type, hue, width, height, pixels, 0, width);
+	}
+
+	/**
+	 * Render into a part of an array
+	 * @param type field type
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @param width width of the image
+	 * @param height height of the image
+	 * @param pixels target array
+	 * @param offset index of the first pixel
+	 * @param scanline distance between two rows in the array
+	 */
+	public static void render(FieldType type, float hue, int width, int height, int[] pixels, int offset, int scanline) {
+		checkSize(width, height);
+		if(scanline < width)
+			throw new IllegalArgumentException("Scanline " + scanline + " is smaller than the width " + width);
+		if(height > 0 && (offset < 0 || offset + (long) (height - 1) * scanline + width > pixels.length))
+			throw new ArrayIndexOutOfBoundsException("Array of length " + pixels.length + " is too small");
+		if(width == 0 || height == 0)
+			return;
+
+		if(type == FieldType.COLOR_FIELD) {
+			ColorFieldRenderer.renderRows(pixels, offset, scanline, width, height, hue, 0, height);
+		} else {
+			renderHueRow(pixels, offset, width);
+			for(int y = 1; y < height; y++) {
+				System.arraycopy(pixels, offset, pixels, offset + y * scanline, width);
+			}
+		}
+	}
+
+	/**
+	 * Render into a buffer, starting at its current position. Buffers backed by an array
+	 * are written directly, other buffers (e.g. direct buffers) row by row.
+	 * The position of the buffer is advanced by <code>width * height</code>.
+	 * @param type field type
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @param width width of the image
+	 * @param height height of the image
+	 * @param buffer target buffer with at least <code>width * height</code> remaining elements
+	 */
+	public static void render(FieldType type, float hue, int width, int height, IntBuffer buffer) {
+		checkSize(width, height);
+		int length = width * height;
+		if(buffer.remaining() < length)
+			throw new IllegalArgumentException("Buffer has " + buffer.remaining() + " remaining elements, " + length + " required");
+		if(buffer.hasArray()) {
+			render(type, hue, width, height, buffer.array(), buffer.arrayOffset() + buffer.position(), width);
+			buffer.position(buffer.position() + length);
+			return;
+		}
+		if(length == 0)
+			return;
+		int[] row = new int[width];
+		if(type == FieldType.COLOR_FIELD) {
+			for(int y = 0; y < height; y++) {
+				ColorFieldRenderer.renderRows(row, 0, 0, width, height, hue, y, y + 1);
+				buffer.put(row);
+			}
+		} else {
+			renderHueRow(row, 0, width);
+			for(int y = 0; y < height; y++) {
+				buffer.put(row);
+			}
+		}
+	}
+
+	/**
+	 * Render into an image. Images of type {@link BufferedImage#TYPE_INT_RGB},
+	 * {@link BufferedImage#TYPE_INT_ARGB} and {@link BufferedImage#TYPE_INT_ARGB_PRE}
+	 * are written directly, other types row by row.
+	 * @param type field type
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @param image target image, the whole image is painted
+	 */
+	public static void render(FieldType type, float hue, BufferedImage image) {
+		int width = image.getWidth(), height = image.getHeight();
+		WritableRaster raster = image.getRaster();
+		int imageType = image.getType();
+		if((imageType == BufferedImage.TYPE_INT_RGB || imageType == BufferedImage.TYPE_INT_ARGB
+				|| imageType == BufferedImage.TYPE_INT_ARGB_PRE)
+				&& raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+				&& raster.getDataBuffer() instanceof DataBufferInt) {
+			SinglePixelPackedSampleModel sampleModel = (SinglePixelPackedSampleModel) raster.getSampleModel();
+			DataBufferInt dataBuffer = (DataBufferInt) raster.getDataBuffer();
+			int offset = dataBuffer.getOffset() + sampleModel.getOffset(
+					-raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+			render(type, hue, width, height, dataBuffer.getData(), offset, sampleModel.getScanlineStride());
+			return;
+		}
+
+		int[] row = new int[width];
+		for(int y = 0; y < height; y++) {
+			if(type == FieldType.COLOR_FIELD)
+				ColorFieldRenderer.renderRows(row, 0, 0, width, height, hue, y, y + 1);
+			else if(y == 0)
+				renderHueRow(row, 0, width);
+			image.setRGB(0, y, width, 1, row, 0, width);
+		}
+	}
+
+	/**
+	 * Render into a new image of type {@link BufferedImage#TYPE_INT_RGB}
+	 * @param type field type
+	 * @param hue hue value <code>(0.0F..1.0F)</code>
+	 * @param width width of the image
+	 * @param height height of the image
+	 * @return new image
+	 */
+	public static BufferedImage render(FieldType type, float hue, int width, int height) {
+		checkSize(width, height);
+		int[] pixels = new int[width * height];
+		render(type, hue, width, height, pixels);
+		return wrap(pixels, width, height);
+	}
+
+	/**
+	 * Create an image of type {@link BufferedImage#TYPE_INT_RGB} that uses the array
+	 * as its pixel data, without copying it
+	 * @param pixels packed RGB values, the rows are stored one after the other
+	 * @param width width of the image
+	 * @param height height of the image
+	 * @return image backed by <code>pixels</code>
+	 */
+	public static BufferedImage wrap(int[] pixels, int width, int height) {
+		if(width <= 0 || height <= 0)
+			throw new IllegalArgumentException("Invalid size: " + width + "x" + height);
+		if(pixels.length < width * height)
+			throw new IllegalArgumentException("Array of length " + pixels.length + " is too small");
+		DirectColorModel colorModel = new DirectColorModel(24, 0x00FF0000, 0x0000FF00, 0x000000FF);
+		WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(pixels, pixels.length), width, height,
+				width, colorModel.getMasks(), null);
+		return new BufferedImage(colorModel, raster, false, null);
+	}
+
+	/**
+	 * Render multiple requests in parallel. Each request is rendered by one thread.
+	 * @param requests requests to render
+	 */
+	public static void renderAll(List<? extends RenderRequest> requests) {
+		renderAll(requests.toArray(new RenderRequest[0]));
+	}
+
+	/**
+	 * Render multiple requests in parallel. Each request is rendered by one thread.
+	 * @param requests requests to render
+	 */
+	public static void renderAll(RenderRequest... requests) {
+		ForkJoinPool pool = ColorFieldRenderer.getPool();
+		if(pool == null || requests.length < 2) {
+			for(RenderRequest request : requests) {
+				request.render();
+			}
+			return;
+		}
+		pool.invoke(new BatchTask(requests, 0, requests.length));
+	}
+
+
+	/**
+	 * Render a row of hue colors from hue <code>0</code> (left) to <code>1</code> (right).
+	 * Same values as {@link java.awt.Color#HSBtoRGB(float, float, float)} with full saturation and brightness.
+	 * @param row target array
+	 * @param offset index of the first pixel
+	 * @param width number of pixels
+	 */
+	public static void renderHueRow(int[] row, int offset, int width) {
+		float hStep = width > 1 ? 1f / (width - 1) : 0f;	// hue steps
+		for(int x = 0; x < width; x++) {
+			float hue = Math.min(1f, x * hStep);
+			float h = (hue - (float) Math.floor(hue)) * 6f;
+			float f = h - (float) Math.floor(h);
+			int q = (int) ((1f - f) * 255f + 0.5f);
+			int t = (int) ((1f - (1f - f)) * 255f + 0.5f);	// rounded like Color.HSBtoRGB, not the same as f
+			int rgb;
+			switch((int) h) {
+				case 0:  rgb = 0xFF0000 | (t << 8); break;
+				case 1:  rgb = (q << 16) | 0x00FF00; break;
+				case 2:  rgb = 0x00FF00 | t; break;
+				case 3:  rgb = (q << 8) | 0x0000FF; break;
+				case 4:  rgb = (t << 16) | 0x0000FF; break;
+				default: rgb = 0xFF0000 | q; break;
+			}
+			row[offset + x] = 0xFF000000 | rgb;
+		}
+	}
+
+	private static void checkSize(int width, int height) {
+		if(width < 0 || height < 0)
+			throw new IllegalArgumentException("Invalid size: " + width + "x" + height);
+	}
+
+
+	/**
+	 * Field type, hue, size and target of one image for {@link ColorPickerRenderer#renderAll(RenderRequest...)}
+	 */
+	public static class RenderRequest {
+		private final FieldType type;
+		private final float hue;
+		private final int width, height;
+		private int[] pixels;
+		private IntBuffer buffer;
+		private BufferedImage image;
+
+		/**
+		 * Create a request that renders into a new array
+		 * @param type field type
+		 * @param hue hue value <code>(0.0F..1.0F)</code>
+		 * @param width width of the image
+		 * @param height height of the image
+		 */
+		public RenderRequest(FieldType type, float hue, int width, int height) {
+			checkSize(width, height);
+			this.type = type;
+			this.hue = hue;
+			this.width = width;
+			this.height = height;
+		}
+
+		/**
+		 * Create a request that renders into an array
+		 * @param type field type
+		 * @param hue hue value <code>(0.0F..1.0F)</code>
+		 * @param width width of the image
+		 * @param height height of the image
+		 * @param pixels target array with at least <code>width * height</code> elements
+		 */
+		public RenderRequest(FieldType type, float hue, int width, int height, int[] pixels) {
+			this(type, hue, width, height);
+			this.pixels = pixels;
+		}
+
+		/**
+		 * Create a request that renders into a buffer, starting at its current position
+		 * @param type field type
+		 * @param hue hue value <code>(0.0F..1.0F)</code>
+		 * @param width width of the image
+		 * @param height height of the image
+		 * @param buffer target buffer, should not be shared by multiple requests
+		 */
+		public RenderRequest(FieldType type, float hue, int width, int height, IntBuffer buffer) {
+			this(type, hue, width, height);
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Create a request that renders into an image
+		 * @param type field type
+		 * @param hue hue value <code>(0.0F..1.0F)</code>
+		 * @param image target image
+		 */
+		public RenderRequest(FieldType type, float hue, BufferedImage image) {
+			this(type, hue, image.getWidth(), image.getHeight());
+			this.image = image;
+		}
+
+		/**
+		 * Render the request in the calling thread
+		 */
+		public void render() {
+			if(image != null) {
+				ColorPickerRenderer.render(type, hue, image);
+			} else if(buffer != null) {
+				ColorPickerRenderer.render(type, hue, width, height, buffer);
+			} else {
+				if(pixels == null)
+					pixels = new int[width * height];
+				ColorPickerRenderer.render(type, hue, width, height, pixels);
+			}
+		}
+
+		/**
+		 * Get the rendered pixels
+		 * @return target array, new array if none was specified or <code>null</code> if the request renders into a buffer or image
+		 */
+		public int[] getPixels() {
+			return pixels;
+		}
+
+		/**
+		 * Get the rendered image
+		 * @return target image or a new image backed by the pixel array, <code>null</code> if the request renders into a buffer
+		 */
+		public BufferedImage getImage() {
+			if(image == null && pixels != null && width > 0 && height > 0)
+				image = wrap(pixels, width, height);
+			return image;
+		}
+
+		public FieldType getType() {
+			return type;
+		}
+
+		public float getHue() {
+			return hue;
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+	}
+
+
+	/**
+	 * Splits the requests until one request is left, which is rendered directly
+	 */
+	private static class BatchTask extends RecursiveAction {
+		private static final long serialVersionUID = -4094818317431765620L;
+
+		private final RenderRequest[] requests;
+		private final int from, to;
+
+		BatchTask(RenderRequest[] requests, int from, int to) {
+			this.requests = requests;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from == 1) {
+				requests[from].render();
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new BatchTask(requests, from, mid), new BatchTask(requests, mid, to));
+		}
+	}
+
+}
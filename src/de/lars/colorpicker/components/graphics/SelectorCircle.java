@@ -2,8 +2,12 @@ package de.lars.colorpicker.components.graphics;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 
 import de.lars.colorpicker.utils.ColorPickerStyle;
+import de.lars.colorpicker.utils.LruCache;
 
 /**
  * Selector circle which can display the current selected color
@@ -13,6 +17,21 @@ import de.lars.colorpicker.utils.ColorPickerStyle;
 public class SelectorCircle {
 	
 	public static final int WIDTH = 20, HEIGHT = 20;
+	
+	/**
+	 * Draw the selector as a pre-rendered sprite instead of two anti-aliased ovals
+	 */
+	public static boolean useSprites = true;
+	
+	/**
+	 * Bits per channel of the inner color that are used for the sprite.
+	 * Colors within the same bucket share a sprite. <code>(1..8)</code>
+	 */
+	public static int spriteColorBits = 6;
+	
+	/** Pre-rendered selectors by foreground color, inner color bucket and scale */
+	private static final LruCache<Long, BufferedImage> spriteCache = new LruCache<>(256);
+	
 	private int minX, maxX, minY, maxY;
 	private Color color;
 	
@@ -42,16 +61,89 @@ public class SelectorCircle {
 		int cX = x - WIDTH / 2;		// center x position
 		int cY = y - HEIGHT / 2;	// center y position
 		
+		if(useSprites) {
+			// sprite has a margin of one pixel for anti-aliasing
+			BufferedImage sprite = getSprite(ColorPickerStyle.colorForegroundSelector, color, g2d.getTransform().getScaleX());
+			g2d.drawImage(sprite, cX - 1, cY - 1, WIDTH + 2, HEIGHT + 2, null);
+		} else {
+			drawCircle(g2d, cX, cY, ColorPickerStyle.colorForegroundSelector, color);
+		}
+	}
+	
+	/**
+	 * Draw the background and foreground ovals
+	 * @param g2d Graphics instance
+	 * @param x left position
+	 * @param y top position
+	 * @param background color of the outer oval
+	 * @param foreground color of the inner oval
+	 */
+	private static void drawCircle(Graphics2D g2d, int x, int y, Color background, Color foreground) {
 		// draw background
-		g2d.setColor(ColorPickerStyle.colorForegroundSelector);
-		g2d.fillOval(cX, cY, WIDTH, HEIGHT);
+		g2d.setColor(background);
+		g2d.fillOval(x, y, WIDTH, HEIGHT);
 		// draw foreground
-		g2d.setColor(color);
+		g2d.setColor(foreground);
 		int padding = 6;	// inner padding
-		g2d.fillOval(cX + padding/2, cY + padding/2, WIDTH - padding, HEIGHT - padding);
+		g2d.fillOval(x + padding/2, y + padding/2, WIDTH - padding, HEIGHT - padding);
+	}
+	
+	/**
+	 * Get the pre-rendered selector for the specified colors and scale
+	 * @param background color of the outer oval
+	 * @param foreground color of the inner oval
+	 * @param scale device scale of the target graphics
+	 * @return translucent sprite of size <code>(WIDTH + 2) * scale</code>
+	 */
+	private static BufferedImage getSprite(Color background, Color foreground, double scale) {
+		int bits = Math.max(1, Math.min(8, spriteColorBits));
+		int channelMask = (0xFF << (8 - bits)) & 0xFF;
+		int mask = (channelMask << 16) | (channelMask << 8) | channelMask;
+		int half = (~channelMask & 0xFF) >> 1;	// center of the bucket
+		int bucket = (foreground.getRGB() & mask) | (half << 16) | (half << 8) | half;
+		int scaleKey = (int) Math.round(scale * 100) & 0xFFFF;
+		
+		Long key = ((long) (background.getRGB() & 0xFFFFFF) << 40) | ((long) scaleKey << 24) | bucket;
+		synchronized (spriteCache) {
+			BufferedImage sprite = spriteCache.get(key);
+			if(sprite == null) {
+				int width = (int) Math.ceil((WIDTH + 2) * scale);
+				int height = (int) Math.ceil((HEIGHT + 2) * scale);
+				sprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D g2d = sprite.createGraphics();
+				g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+				g2d.scale(scale, scale);
+				drawCircle(g2d, 1, 1, background, new Color(bucket));
+				g2d.dispose();
+				spriteCache.put(key, sprite);
+			}
+			return sprite;
+		}
+	}
+	
+	/**
+	 * Set the maximum number of cached selector sprites
+	 * @param maxSprites maximum number of sprites
+	 */
+	public static void setSpriteCacheSize(int maxSprites) {
+		synchronized (spriteCache) {
+			spriteCache.setMaxEntries(maxSprites);
+		}
 	}
 	
 	
+	/**
+	 * Get the area covered by the circle when drawn at the specified position
+	 * @param x x position
+	 * @param y y position
+	 * @return bounds including a margin of one pixel for anti-aliasing
+	 */
+	public Rectangle getBounds(int x, int y) {
+		x = checkX(x);
+		y = checkY(y);
+		return new Rectangle(x - WIDTH / 2 - 1, y - HEIGHT / 2 - 1, WIDTH + 2, HEIGHT + 2);
+	}
+	
 	/**
 	 * Check if the value is within the range <code>minX -  maxX</code>
 	 * @param x x value
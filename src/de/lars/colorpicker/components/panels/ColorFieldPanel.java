@@ -4,11 +4,16 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.Shape;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionAdapter;
-import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import de.lars.colorpicker.components.graphics.ColorPickerField;
 import de.lars.colorpicker.components.graphics.SelectorCircle;
@@ -23,10 +28,24 @@ import de.lars.colorpicker.utils.ColorUitl;
 public class ColorFieldPanel extends ColorPickerPanelComponent {
 	private static final long serialVersionUID = -2578116870843350479L;
 	
-	private long lastUpdate;
-	private Color color;
-	private ColorPickerField cpField;
+	/**
+	 * Background threads that render the color fields
+	 */
+	private static final ExecutorService renderExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "ColorPicker-FieldRenderer");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+	
+	private int rgb;		// selected color
+	private Color color;	// selected color object, created when requested
+	private volatile ColorPickerField cpField;
 	private SelectorCircle sc;
+	private final AtomicBoolean renderRequested = new AtomicBoolean();
+	private final AtomicBoolean renderRunning = new AtomicBoolean();
 	
 	/**
 	 * Create a new color field panel with the initial color red
@@ -41,6 +60,7 @@ public class ColorFieldPanel extends ColorPickerPanelComponent {
 	 */
 	public ColorFieldPanel(Color color) {
 		this.color = color;
+		this.rgb = color.getRGB();
 		float hue = ColorUitl.getHueFromColor(color);
 		update();
 		cpField = new ColorPickerField(fieldWidth, fieldHeight, hue);
@@ -59,18 +79,23 @@ public class ColorFieldPanel extends ColorPickerPanelComponent {
 		
 		int x = paddingLeft, y = paddingTop;
 		
-		g2d.setClip(new RoundRectangle2D.Float(x, y, fieldWidth, fieldHeight, cornerRadius, cornerRadius));
+		Shape clip = g2d.getClip();
+		clipField(g2d, x, y);
 
-		if (cpField.getBufferedImage() != null) {
-			// draw color field background
-			g2d.drawImage(cpField.getBufferedImage(), x, y, this);
-			
-			// draw color selector
-			g2d.setClip(null);
-			Color selColor = getColorFromImage(cpField.getBufferedImage(), sc);
-			sc.setColor(selColor);
-			sc.draw(g2d, selX, selY);
-			color = selColor;
+		ColorPickerField field = cpField;
+		BufferedImage image = field.lockBufferedImage();
+		try {
+			if (image != null) {
+				// draw color field background
+				g2d.drawImage(image, x, y, this);
+				
+				// draw color selector
+				g2d.setClip(clip);
+				sc.setColor(getColor());
+				sc.draw(g2d, selX, selY);
+			}
+		} finally {
+			field.unlockBufferedImage();
 		}
 		g2d.dispose();
 	}
@@ -103,15 +128,36 @@ public class ColorFieldPanel extends ColorPickerPanelComponent {
 	 * @param e the MouseEvent that was triggered
 	 */
 	protected void onMouseEvent(MouseEvent e) {
-		// set coordinates of color selector and repaint
-		selX = e.getX() + paddingLeft;
-		selY = e.getY() + paddingTop;
-		repaint();
-		Color selColor = sc.getColor();
-		if(cpField.getBufferedImage() != null)
-			selColor = getColorFromImage(cpField.getBufferedImage(), sc); // try to get color from current image
+		// set coordinates of color selector and repaint the selector area
+		moveSelector(sc, e.getX() + paddingLeft, e.getY() + paddingTop);
+		rgb = calcSelectedRGB();
 		// fire change event
-		onColorValueChanged(selColor);
+		onColorValueChanged(rgb, cpField.getHue());
+	}
+	
+	/**
+	 * Calculates the color at the current position of the selector.
+	 * Reads the rendered image if {@link #analyticColor} is disabled and
+	 * the image has the size of the field.
+	 * @return packed RGB value at the current position of the selector
+	 */
+	protected int calcSelectedRGB() {
+		BufferedImage image = cpField.getBufferedImage();
+		if(!analyticColor && image != null && image.getWidth() == fieldWidth && image.getHeight() == fieldHeight)
+			return getRGBFromImage(image, sc);
+		return getRGBFromPosition();
+	}
+	
+	/**
+	 * Calculates the color at the current position of the selector
+	 * from the hue of the color field. Does not depend on the rendered image,
+	 * which may still be rendered in the background.
+	 * @return packed RGB value at the current position of the selector
+	 */
+	protected int getRGBFromPosition() {
+		float s = fieldWidth > 1 ? (float) (sc.checkX(selX) - paddingLeft) / (fieldWidth - 1) : 0f;
+		float b = fieldHeight > 1 ? 1f - (float) (sc.checkY(selY) - paddingTop) / (fieldHeight - 1) : 1f;
+		return Color.HSBtoRGB(cpField.getHue(), s, b);
 	}
 
 	/**
@@ -136,36 +182,83 @@ public class ColorFieldPanel extends ColorPickerPanelComponent {
 	public void updateSize() {
 		update();
 		sc.setMaxMin(selMaxX, selMinX, selMaxY, selMinY);
-		cpField.updateSize(fieldWidth, fieldHeight);
+		cpField.setWidth(fieldWidth);
+		cpField.setHeight(fieldHeight);
+		requestRender();
 	}
 	
 	/**
-	 * Repaint color field
+	 * Repaint color field with the current hue of the {@link ColorPickerField}.
+	 * The field is rendered in the background and repainted when finished.
 	 */
 	public void updateColorField() {
-		if(System.currentTimeMillis() - lastUpdate > 50) {	// update only 20 times per second
-			lastUpdate = System.currentTimeMillis();
-			cpField.update();
-			if(cpField.getBufferedImage() != null)
-				color = getColorFromImage(cpField.getBufferedImage(), sc);
-			repaint();
+		rgb = calcSelectedRGB();
+		requestRender();
+	}
+	
+	/**
+	 * Request rendering of the color field. If a render is already running,
+	 * the field is rendered again afterwards with the latest hue and size.
+	 */
+	protected void requestRender() {
+		renderRequested.set(true);
+		if(renderRunning.compareAndSet(false, true)) {
+			renderExecutor.execute(renderTask);
 		}
 	}
 	
+	/**
+	 * Renders the color field until no new render was requested
+	 */
+	private final Runnable renderTask = new Runnable() {
+		@Override
+		public void run() {
+			do {
+				try {
+					while(renderRequested.getAndSet(false)) {
+						cpField.update();
+						repaint();
+					}
+				} finally {
+					renderRunning.set(false);
+				}
+				// a request may have arrived after the loop ended
+			} while(renderRequested.get() && renderRunning.compareAndSet(false, true));
+		}
+	};
+	
 	/**
 	 * Set the selected color
 	 * @param color new selected color
 	 */
 	public void setSelectedColor(Color color) {
-		float[] hsb = Color.RGBtoHSB(color.getRed(), color.getGreen(), color.getBlue(), null);
+		moveSelectorTo(color.getRGB());
+		rgb = calcSelectedRGB();
+	}
+	
+	/**
+	 * Move the selector to the saturation and brightness of a color and select exactly this color.
+	 * The hue of the color field is not changed, so the selected color may differ
+	 * from the color of the field below the selector.
+	 * @param rgb packed RGB value
+	 */
+	public void setSelectedRGB(int rgb) {
+		moveSelectorTo(rgb);
+		this.rgb = rgb;
+	}
+	
+	/**
+	 * Move the selector to the saturation and brightness of a color
+	 * @param rgb packed RGB value
+	 */
+	private void moveSelectorTo(int rgb) {
+		float[] hsb = Color.RGBtoHSB((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, null);
 		if(hsb[1] > 1f) hsb[1] = 1f;
 		if(hsb[2] > 1f) hsb[2] = 1f;
 		int relativeSat = (int) (fieldWidth * hsb[1]);	// saturation pos -> x
 		int relativeBri = fieldHeight - (int) (fieldHeight * hsb[2]);	// brightness pos -> y
 		
-		selX = relativeSat + paddingLeft;
-		selY = relativeBri + paddingTop;
-		repaint();
+		moveSelector(sc, relativeSat + paddingLeft, relativeBri + paddingTop);
 	}
 	
 	/**
@@ -173,7 +266,18 @@ public class ColorFieldPanel extends ColorPickerPanelComponent {
 	 * @return Color
 	 */
 	public Color getColor() {
-		return color;
+		Color c = color;
+		if(c == null || c.getRGB() != rgb)
+			color = c = new Color(rgb);
+		return c;
+	}
+	
+	/**
+	 * Get the selected color without creating a {@link Color} object
+	 * @return packed RGB value
+	 */
+	public int getRGB() {
+		return rgb;
 	}
 
 }
@@ -0,0 +1,431 @@
+package de.lars.colorpicker.components.panels;
+
+import java.awt.Color;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+
+import de.lars.colorpicker.components.ColorPaletteModel;
+import de.lars.colorpicker.components.events.PaletteItemListener;
+import de.lars.colorpicker.components.events.PaletteModelListener;
+import de.lars.colorpicker.components.graphics.ColorPaletteItem;
+import de.lars.colorpicker.utils.ColorPickerStyle;
+import de.lars.colorpicker.utils.ListenerList;
+
+/**
+ * Virtualized color palette that paints all colors in a single component.
+ * <p>Unlike {@link ColorPalettePanel} it does not create a component per color.
+ * Only the visible colors are painted and clicked colors are found by their position,
+ * so large palettes can be shown in a scroll pane.
+ * The colors are stored in a {@link ColorPaletteModel} and only the
+ * swatches affected by a change of the model are repainted.</p>
+ * @author Lars O.
+ *
+ */
+public class ColorPaletteGrid extends JComponent implements Scrollable {
+	private static final long serialVersionUID = -2671541405934926012L;
+
+	protected ListenerList<PaletteItemListener> listItemListener;
+	protected ColorPaletteModel model;
+	protected int itemSize;
+	protected int gap;
+	protected int cornerRadius = ColorPaletteItem.DEFAULT_CORNER_RADIUS;
+	protected int hoverIndex = -1;
+	/** Recently painted colors, indexed by a hash of the RGB value */
+	private final Color[] colorCache = new Color[256];
+
+	/**
+	 * Create a new empty palette grid
+	 */
+	public ColorPaletteGrid() {
+		this(ColorPaletteItem.DEFAULT_SIZE, 5);
+	}
+
+	/**
+	 * Create a new empty palette grid
+	 * @param itemSize size of the color rectangles
+	 * @param gap space between the color rectangles
+	 */
+	public ColorPaletteGrid(int itemSize, int gap) {
+		this(new ColorPaletteModel(), itemSize, gap);
+	}
+
+	/**
+	 * Create a new palette grid that shows the colors of a model
+	 * @param model model that stores the colors
+	 * @param itemSize size of the color rectangles
+	 * @param gap space between the color rectangles
+	 */
+	public ColorPaletteGrid(ColorPaletteModel model, int itemSize, int gap) {
+		this.itemSize = itemSize;
+		this.gap = gap;
+		listItemListener = new ListenerList<>(PaletteItemListener.class);
+		this.model = model;
+		model.addPaletteModelListener(modelListener);
+		setBackground(ColorPickerStyle.colorBackgroundPalatte);
+		setOpaque(true);
+		addMouseListener(mouseListener);
+		addMouseMotionListener(mouseListener);
+	}
+
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		Graphics2D g2d = (Graphics2D) g.create();
+		Rectangle clip = g2d.getClipBounds();
+		if(clip == null)
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+		if(isOpaque()) {
+			g2d.setColor(getBackground());
+			g2d.fillRect(clip.x, clip.y, clip.width, clip.height);
+		}
+		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+		// only paint the rows that intersect the clip
+		int columns = getColumnCount();
+		int colorCount = model.size();
+		int cell = itemSize + gap;
+		int firstRow = Math.max(0, (clip.y - gap) / cell);
+		int lastRow = (clip.y + clip.height - gap) / cell;
+		int firstColumn = Math.max(0, (clip.x - gap) / cell);
+		int lastColumn = Math.min(columns - 1, (clip.x + clip.width - gap) / cell);
+
+		for(int row = firstRow; row <= lastRow; row++) {
+			for(int column = firstColumn; column <= lastColumn; column++) {
+				int index = row * columns + column;
+				if(index >= colorCount)
+					break;
+				int x = gap + column * cell;
+				int y = gap + row * cell;
+				int size = itemSize;
+				if(index == hoverIndex) {
+					x += 1;
+					y += 1;
+					size -= 2;
+				}
+				g2d.setColor(getSwatchColor(model.getColor(index)));
+				g2d.fillRoundRect(x, y, size, size, cornerRadius, cornerRadius);
+			}
+		}
+		g2d.dispose();
+	}
+
+
+	/**
+	 * Get a color object for a swatch without creating a new one on every paint
+	 * @param rgb packed RGB value
+	 * @return Color
+	 */
+	private Color getSwatchColor(int rgb) {
+		int slot = (rgb ^ (rgb >>> 8) ^ (rgb >>> 16)) & (colorCache.length - 1);
+		Color color = colorCache[slot];
+		if(color == null || color.getRGB() != (rgb | 0xFF000000))
+			colorCache[slot] = color = new Color(rgb);
+		return color;
+	}
+
+
+	/**
+	 * Get the index of the color at the specified position
+	 * @param x x position
+	 * @param y y position
+	 * @return index or <code>-1</code> if there is no color at this position
+	 */
+	public int getIndexAt(int x, int y) {
+		int cell = itemSize + gap;
+		int column = (x - gap) / cell;
+		int row = (y - gap) / cell;
+		if(x < gap || y < gap || (x - gap) % cell >= itemSize || (y - gap) % cell >= itemSize)
+			return -1;	// position is in a gap
+		int columns = getColumnCount();
+		if(column >= columns)
+			return -1;
+		int index = row * columns + column;
+		return index < model.size() ? index : -1;
+	}
+
+	/**
+	 * Get the bounds of the color rectangle at the specified index
+	 * @param index index of the color
+	 * @return Rectangle
+	 */
+	public Rectangle getItemBounds(int index) {
+		int columns = getColumnCount();
+		int cell = itemSize + gap;
+		return new Rectangle(gap + (index % columns) * cell, gap + (index / columns) * cell, itemSize, itemSize);
+	}
+
+	/**
+	 * Get the number of columns that fit into the current width
+	 * @return number of columns, at least <code>1</code>
+	 */
+	public int getColumnCount() {
+		return Math.max(1, (getLayoutWidth() - gap) / (itemSize + gap));
+	}
+
+	/**
+	 * Width used to lay out the colors. The width of the viewport
+	 * is used if the grid is inside a scroll pane.
+	 * @return width
+	 */
+	protected int getLayoutWidth() {
+		Container parent = getParent();
+		if(parent instanceof JViewport)
+			return parent.getWidth();
+		return getWidth();
+	}
+
+
+	/**
+	 * Triggered on mouse actions within the grid
+	 */
+	protected MouseAdapter mouseListener = new MouseAdapter() {
+		public void mousePressed(MouseEvent e) {
+			int index = getIndexAt(e.getX(), e.getY());
+			if(index != -1) {
+				fireItemClickEvent(index);
+			}
+		};
+
+		public void mouseMoved(MouseEvent e) {
+			setHoverIndex(getIndexAt(e.getX(), e.getY()));
+		};
+
+		public void mouseExited(MouseEvent e) {
+			setHoverIndex(-1);
+		};
+	};
+
+	/**
+	 * Set the color rectangle under the mouse and repaint the changed rectangles
+	 * @param index index or <code>-1</code>
+	 */
+	protected void setHoverIndex(int index) {
+		if(index == hoverIndex)
+			return;
+		if(hoverIndex != -1 && hoverIndex < model.size())
+			repaint(getItemBounds(hoverIndex));
+		hoverIndex = index;
+		if(index != -1)
+			repaint(getItemBounds(index));
+	}
+
+
+	/**
+	 * Add a palette item click listener
+	 * @param listener {@link PaletteItemListener}
+	 */
+	public void addPaletteItemListener(PaletteItemListener listener) {
+		listItemListener.add(listener);
+	}
+
+	/**
+	 * Add a palette item click listener that is held by a weak reference
+	 * @param listener {@link PaletteItemListener}
+	 */
+	public void addWeakPaletteItemListener(PaletteItemListener listener) {
+		listItemListener.addWeak(listener);
+	}
+
+	/**
+	 * Remove a palette item click listener
+	 * @param listener {@link PaletteItemListener}
+	 */
+	public void removePaletteItemListener(PaletteItemListener listener) {
+		listItemListener.remove(listener);
+	}
+
+	/**
+	 * Trigger all listeners
+	 * @param index index of the clicked color
+	 */
+	protected void fireItemClickEvent(int index) {
+		ColorPaletteItem item = new ColorPaletteItem(new Color(model.getColor(index)), itemSize);
+		for(PaletteItemListener l : listItemListener.getListeners()) {
+			l.onPaletteItemClicked(index, item);
+		}
+	}
+
+
+	/**
+	 * Applies the changes of the model to the grid
+	 */
+	protected PaletteModelListener modelListener = new PaletteModelListener() {
+		@Override
+		public void onColorInserted(int index, int rgb) {
+			onColorsShifted(index, model.size() - 1);
+		}
+
+		@Override
+		public void onColorReplaced(int index, int rgb) {
+			repaint(getItemBounds(index));
+		}
+
+		@Override
+		public void onColorRemoved(int index) {
+			onColorsShifted(index, model.size());
+		}
+
+		@Override
+		public void onPaletteChanged() {
+			hoverIndex = -1;
+			revalidate();
+			repaint();
+		}
+	};
+
+	/**
+	 * Repaint the swatches from <code>fromIndex</code> to <code>toIndex</code> (inclusive)
+	 * after colors were inserted or removed. Swing clips the repaint to the visible area.
+	 * @param fromIndex first changed index
+	 * @param toIndex last changed index
+	 */
+	protected void onColorsShifted(int fromIndex, int toIndex) {
+		Rectangle from = getItemBounds(fromIndex);
+		Rectangle to = getItemBounds(toIndex);
+		if(from.y == to.y) {
+			from.add(to);
+			repaint(from);
+		} else {
+			// rest of the first row and all following rows
+			repaint(0, from.y, getWidth(), to.y + to.height - from.y);
+		}
+		if(getPreferredSize().height != getHeight())
+			revalidate();
+	}
+
+
+	/**
+	 * Replace all colors of the grid
+	 * @param rgb packed RGB values
+	 */
+	public void setColors(int[] rgb) {
+		model.setColors(rgb);
+	}
+
+	/**
+	 * Replace all colors of the grid
+	 * @param color new colors
+	 */
+	public void setColors(Color... color) {
+		int[] rgb = new int[color.length];
+		for(int i = 0; i < rgb.length; i++) {
+			rgb[i] = color[i].getRGB();
+		}
+		setColors(rgb);
+	}
+
+	/**
+	 * Add a color to the grid, see {@link ColorPaletteModel#addColor(int)}
+	 * @param color new color
+	 */
+	public void addColor(Color color) {
+		model.addColor(color.getRGB());
+	}
+
+	/**
+	 * Get the color at the specified index
+	 * @param index index of the color
+	 * @return packed RGB value
+	 */
+	public int getColor(int index) {
+		return model.getColor(index);
+	}
+
+	/**
+	 * Get the number of colors
+	 * @return color count
+	 */
+	public int getColorCount() {
+		return model.size();
+	}
+
+	/**
+	 * Get the model that stores the colors of this grid
+	 * @return {@link ColorPaletteModel}
+	 */
+	public ColorPaletteModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Show the colors of another model
+	 * @param model new model
+	 */
+	public void setModel(ColorPaletteModel model) {
+		this.model.removePaletteModelListener(modelListener);
+		this.model = model;
+		model.addPaletteModelListener(modelListener);
+		modelListener.onPaletteChanged();
+	}
+
+	public int getItemSize() {
+		return itemSize;
+	}
+
+	public void setItemSize(int itemSize) {
+		this.itemSize = itemSize;
+		revalidate();
+		repaint();
+	}
+
+	public int getGap() {
+		return gap;
+	}
+
+	public void setGap(int gap) {
+		this.gap = gap;
+		revalidate();
+		repaint();
+	}
+
+
+	@Override
+	public Dimension getPreferredSize() {
+		if(isPreferredSizeSet())
+			return super.getPreferredSize();
+		int columns = getColumnCount();
+		int rows = (model.size() + columns - 1) / columns;
+		int cell = itemSize + gap;
+		return new Dimension(gap + columns * cell, gap + rows * cell);
+	}
+
+	@Override
+	public Dimension getPreferredScrollableViewportSize() {
+		return getPreferredSize();
+	}
+
+	@Override
+	public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return itemSize + gap;
+	}
+
+	@Override
+	public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+		if(orientation == SwingConstants.VERTICAL)
+			return Math.max(itemSize + gap, visibleRect.height - (itemSize + gap));
+		return Math.max(itemSize + gap, visibleRect.width - (itemSize + gap));
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		return true;
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportHeight() {
+		return false;
+	}
+
+}
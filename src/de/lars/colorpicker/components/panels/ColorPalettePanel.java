@@ -4,39 +4,70 @@ import java.awt.Color;
 import java.awt.FlowLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
 import javax.swing.JPanel;
 
+import de.lars.colorpicker.components.ColorPaletteModel;
+import de.lars.colorpicker.components.ColorPaletteModel.AddBehavior;
 import de.lars.colorpicker.components.events.PaletteItemListener;
+import de.lars.colorpicker.components.events.PaletteModelListener;
 import de.lars.colorpicker.components.graphics.ColorPaletteItem;
 import de.lars.colorpicker.utils.ColorPickerStyle;
+import de.lars.colorpicker.utils.ListenerList;
 import de.lars.colorpicker.utils.WrapLayout;
 
 /**
  * Panel that can show multiple color rectangles
+ * <p>The colors are stored in a {@link ColorPaletteModel}. Changes of the model
+ * are applied to the panel item by item instead of rebuilding all items.</p>
  * @author Lars O.
  *
  */
 public class ColorPalettePanel extends JPanel {
 	private static final long serialVersionUID = 4384165202058823533L;
 	
-	/** Behavior when adding a new color palette item if the maximum number of items has been reached */
+	/**
+	 * Behavior when adding a new color palette item if the maximum number of items has been reached
+	 * @deprecated the behavior is stored in the model, use {@link AddBehavior}
+	 */
+	@Deprecated
 	public enum ItemAddBehavior {
 		/** No new item can be added */
 		NONE,
 		/** Replace first item when full  */
 		REPLACE_FIRST,
 		/** Replace last item when full */
-		REPLACE_LAST
+		REPLACE_LAST;
+		
+		/**
+		 * Get the matching behavior of the model
+		 * @return {@link AddBehavior}
+		 */
+		public AddBehavior toAddBehavior() {
+			return AddBehavior.valueOf(name());
+		}
+		
+		/**
+		 * Get the matching item add behavior
+		 * @param addBehavior behavior of the model
+		 * @return {@link ItemAddBehavior}
+		 */
+		public static ItemAddBehavior of(AddBehavior addBehavior) {
+			return valueOf(addBehavior.name());
+		}
 	}
 	
-	protected List<PaletteItemListener> listItemListener;
+	protected ListenerList<PaletteItemListener> listItemListener;
 	protected List<ColorPaletteItem> listPaletteItems;
-	protected int maxPaletteItems;
-	protected ItemAddBehavior addBehavior = ItemAddBehavior.REPLACE_FIRST;
+	protected ColorPaletteModel model;
 	protected int itemSize;
+	private final Deque<ColorPaletteItem> pendingItems = new ArrayDeque<>();	// item instances of added colors that are not shown yet
+	private boolean itemsEnabled = true;
 	
 	/**
 	 * Create a new color palette with unlimited amount of palette items
@@ -61,9 +92,10 @@ public class ColorPalettePanel extends JPanel {
 	 * @param listColors Predefined palette items
 	 */
 	public ColorPalettePanel(int maxItems, int itemSize, List<Color> listColors) {
-		listItemListener = new ArrayList<>();
+		listItemListener = new ListenerList<>(PaletteItemListener.class);
 		listPaletteItems = new ArrayList<>();
-		this.maxPaletteItems = maxItems;
+		model = new ColorPaletteModel(maxItems);
+		model.addPaletteModelListener(modelListener);
 		this.itemSize = itemSize;
 		
 		setLayout(new WrapLayout(FlowLayout.LEFT));
@@ -92,56 +124,169 @@ public class ColorPalettePanel extends JPanel {
 	 * @param color new color(s)
 	 */
 	public void addColor(Color... color) {
-		for(Color c : color) {
-			ColorPaletteItem item = new ColorPaletteItem(c, itemSize);
-			addColorPaletteItem(item);
+		if(color.length == 1) {
+			model.addColor(color[0].getRGB());
+			return;
 		}
+		// add all colors with a single layout
+		model.beginUpdate();
+		try {
+			for(Color c : color) {
+				model.addColor(c.getRGB());
+			}
+		} finally {
+			model.endUpdate();
+		}
+	}
+	
+	/**
+	 * Replace all colors of the color palette with a single layout
+	 * @param color new colors, index <code>0</code> is shown first
+	 */
+	public void setColors(Color... color) {
+		int[] rgb = new int[color.length];
+		for(int i = 0; i < rgb.length; i++) {
+			rgb[i] = color[i].getRGB();
+		}
+		model.setColors(rgb);
+	}
+	
+	/**
+	 * Remove all colors of the color palette
+	 */
+	public void clearColors() {
+		model.clear();
+	}
+	
+	/**
+	 * Start a bulk update of the color palette.
+	 * The panel is laid out once when {@link #endUpdate()} is called.
+	 */
+	public void beginUpdate() {
+		model.beginUpdate();
+	}
+	
+	/**
+	 * Finish a bulk update and lay out the panel if the colors changed
+	 */
+	public void endUpdate() {
+		model.endUpdate();
 	}
 	
 	
 	/**
-	 * Add a new palette item instance to the color palette
+	 * Add a new palette item instance to the color palette.
+	 * During a bulk update the item is shown when {@link #endUpdate()} is called.
 	 * @param item palette item
 	 */
 	public void addColorPaletteItem(ColorPaletteItem item) {
+		if(!itemsEnabled) {
+			model.addColor(item.getColor().getRGB());
+			return;
+		}
+		pendingItems.addLast(item);
+		boolean added = false;
+		try {
+			added = model.addColor(item.getColor().getRGB());
+		} finally {
+			// the item is consumed immediately unless an update is open
+			if(!added || !model.isUpdating())
+				pendingItems.removeLastOccurrence(item);
+		}
+	}
+	
+	/**
+	 * Create a palette item for a color of the model
+	 * @param rgb packed RGB value
+	 * @return new item or the item passed to {@link #addColorPaletteItem(ColorPaletteItem)}
+	 */
+	protected ColorPaletteItem createPaletteItem(int rgb) {
+		ColorPaletteItem item = takePendingItem(rgb);
+		if(item == null)
+			item = new ColorPaletteItem(new Color(rgb), itemSize);
 		// click listener
 		item.addMouseListener(paletteItemClickListener);
-		
-		if(listPaletteItems.size() < maxPaletteItems || maxPaletteItems <= -1) {
-			listPaletteItems.add(0, item);
-		} else {
-			switch(addBehavior) {
-				case REPLACE_FIRST:
-					rotatePaletteItemList(true);
-					listPaletteItems.set(0, item);
-					break;
-				case REPLACE_LAST:
-					rotatePaletteItemList(false);
-					listPaletteItems.set(listPaletteItems.size()-1, item);
-					break;
-				case NONE:
-					return;
+		return item;
+	}
+	
+	/**
+	 * Remove the first pending item with the specified color from the queue
+	 * @param rgb packed RGB value
+	 * @return item or <code>null</code> if no pending item has this color
+	 */
+	private ColorPaletteItem takePendingItem(int rgb) {
+		for(Iterator<ColorPaletteItem> it = pendingItems.iterator(); it.hasNext();) {
+			ColorPaletteItem item = it.next();
+			if(item.getColor().getRGB() == rgb) {
+				it.remove();
+				return item;
 			}
 		}
-		addPaletteItemsToPanel();
-		this.revalidate();
-		this.updateUI();
+		return null;
 	}
 	
+	
 	/**
-	 * Shift items in the {@link #listPaletteItems} in the specified direction
-	 * @param rightDirection <code>true</code> = right; <code>false</code> = left direction
+	 * Applies the changes of the model to the panel
 	 */
-	protected void rotatePaletteItemList(boolean rightDirection) {
-		if(rightDirection) {
-			listPaletteItems.add(0, null);
-			listPaletteItems.remove(listPaletteItems.size()-1);
-		} else {
-			for(int i = 0; i < listPaletteItems.size()-1; i++) {
-				listPaletteItems.set(i, listPaletteItems.get(i+1));
+	protected PaletteModelListener modelListener = new PaletteModelListener() {
+		@Override
+		public void onColorInserted(int index, int rgb) {
+			ColorPaletteItem item = createPaletteItem(rgb);
+			listPaletteItems.add(index, item);
+			add(item, index);
+			revalidate();
+			repaint();
+		}
+		
+		@Override
+		public void onColorReplaced(int index, int rgb) {
+			ColorPaletteItem item = listPaletteItems.get(index);
+			item.setColor(new Color(rgb));
+			item.repaint();
+		}
+		
+		@Override
+		public void onColorRemoved(int index) {
+			ColorPaletteItem item = listPaletteItems.remove(index);
+			item.removeMouseListener(paletteItemClickListener);
+			remove(index);
+			revalidate();
+			repaint();
+		}
+		
+		@Override
+		public void onPaletteChanged() {
+			// use the items added during the update, reuse the existing items for the other colors
+			int size = model.size();
+			List<ColorPaletteItem> items = new ArrayList<>(size);
+			int reused = 0;
+			for(int i = 0; i < size; i++) {
+				int rgb = model.getColor(i);
+				ColorPaletteItem item;
+				if(!pendingItems.isEmpty() && (item = takePendingItem(rgb)) != null) {
+					item.addMouseListener(paletteItemClickListener);
+				} else if(reused < listPaletteItems.size()) {
+					item = listPaletteItems.get(reused++);
+					if(item.getColor().getRGB() != rgb)
+						item.setColor(new Color(rgb));
+				} else {
+					item = createPaletteItem(rgb);
+				}
+				items.add(item);
+			}
+			for(int i = reused; i < listPaletteItems.size(); i++) {
+				listPaletteItems.get(i).removeMouseListener(paletteItemClickListener);
 			}
+			// items of colors that were replaced again during the update are dropped
+			pendingItems.clear();
+			listPaletteItems.clear();
+			listPaletteItems.addAll(items);
+			addPaletteItemsToPanel();
+			revalidate();
+			repaint();
 		}
-	}
+	};
 	
 	
 	/**
@@ -152,6 +297,22 @@ public class ColorPalettePanel extends JPanel {
 		listItemListener.add(listener);
 	}
 	
+	/**
+	 * Add a palette item click listener that is held by a weak reference
+	 * @param listener {@link PaletteItemListener}
+	 */
+	public void addWeakPaletteItemListener(PaletteItemListener listener) {
+		listItemListener.addWeak(listener);
+	}
+	
+	/**
+	 * Remove a palette item click listener
+	 * @param listener {@link PaletteItemListener}
+	 */
+	public void removePaletteItemListener(PaletteItemListener listener) {
+		listItemListener.remove(listener);
+	}
+	
 	
 	/**
 	 * Triggered when a palette item was clicked
@@ -173,10 +334,8 @@ public class ColorPalettePanel extends JPanel {
 	protected void fireItemClickEvent(ColorPaletteItem item) {
 		// get index of item
 		int index = listPaletteItems.indexOf(item);
-		for(PaletteItemListener l : listItemListener) {
-			if(l != null) {
-				l.onPaletteItemClicked(index, item);
-			}
+		for(PaletteItemListener l : listItemListener.getListeners()) {
+			l.onPaletteItemClicked(index, item);
 		}
 	}
 
@@ -186,13 +345,21 @@ public class ColorPalettePanel extends JPanel {
 	 * @return Color array
 	 */
 	public Color[] getPaletteColors() {
-		Color[] colors = new Color[listPaletteItems.size()];
+		Color[] colors = new Color[model.size()];
 		for(int i = 0; i < colors.length; i++) {
-			colors[i] = listPaletteItems.get(i).getColor();
+			colors[i] = new Color(model.getColor(i));
 		}
 		return colors;
 	}
 	
+	/**
+	 * Get the model that stores the colors of this palette
+	 * @return {@link ColorPaletteModel}
+	 */
+	public ColorPaletteModel getModel() {
+		return model;
+	}
+	
 	/**
 	 * Get all color palette items
 	 * @return List
@@ -206,7 +373,48 @@ public class ColorPalettePanel extends JPanel {
 	 * @param listPaletteItems new color palette item list
 	 */
 	public void setListPaletteItems(List<ColorPaletteItem> listPaletteItems) {
+		for(ColorPaletteItem item : this.listPaletteItems) {
+			item.removeMouseListener(paletteItemClickListener);
+		}
 		this.listPaletteItems = listPaletteItems;
+		int[] rgb = new int[listPaletteItems.size()];
+		for(int i = 0; i < rgb.length; i++) {
+			ColorPaletteItem item = listPaletteItems.get(i);
+			item.addMouseListener(paletteItemClickListener);
+			rgb[i] = item.getColor().getRGB();
+		}
+		model.setColors(rgb);
+	}
+
+	/**
+	 * Enable or disable the item components of the colors. Disable them if the colors
+	 * of the model are shown by another view, for example a {@link ColorPaletteGrid}, to
+	 * avoid creating a component per color. The model is still updated while the items are disabled,
+	 * but the panel is empty and {@link #getListPaletteItems()} returns an empty list.
+	 * @param itemsEnabled create components for the colors?
+	 */
+	public void setItemsEnabled(boolean itemsEnabled) {
+		if(this.itemsEnabled == itemsEnabled)
+			return;
+		this.itemsEnabled = itemsEnabled;
+		if(itemsEnabled) {
+			model.addPaletteModelListener(modelListener);
+			modelListener.onPaletteChanged();
+		} else {
+			model.removePaletteModelListener(modelListener);
+			for(ColorPaletteItem item : listPaletteItems) {
+				item.removeMouseListener(paletteItemClickListener);
+			}
+			listPaletteItems.clear();
+			pendingItems.clear();
+			removeAll();
+			revalidate();
+			repaint();
+		}
+	}
+
+	public boolean isItemsEnabled() {
+		return itemsEnabled;
 	}
 
 	/**
@@ -214,7 +422,7 @@ public class ColorPalettePanel extends JPanel {
 	 * @return maximum amount
 	 */
 	public int getMaxPaletteItems() {
-		return maxPaletteItems;
+		return model.getMaxItems();
 	}
 
 	/**
@@ -222,15 +430,31 @@ public class ColorPalettePanel extends JPanel {
 	 * @param maxPaletteItems maximum amount
 	 */
 	public void setMaxPaletteItems(int maxPaletteItems) {
-		this.maxPaletteItems = maxPaletteItems;
+		model.setMaxItems(maxPaletteItems);
 	}
 
+	/**
+	 * @deprecated use {@link #getModelAddBehavior()}
+	 */
+	@Deprecated
 	public ItemAddBehavior getAddBehavior() {
-		return addBehavior;
+		return ItemAddBehavior.of(model.getAddBehavior());
 	}
 
+	/**
+	 * @deprecated use {@link #setAddBehavior(AddBehavior)}
+	 */
+	@Deprecated
 	public void setAddBehavior(ItemAddBehavior addBehavior) {
-		this.addBehavior = addBehavior;
+		model.setAddBehavior(addBehavior.toAddBehavior());
+	}
+
+	public AddBehavior getModelAddBehavior() {
+		return model.getAddBehavior();
+	}
+
+	public void setAddBehavior(AddBehavior addBehavior) {
+		model.setAddBehavior(addBehavior);
 	}
 
 	public int getItemSize() {
@@ -1,14 +1,15 @@
 package de.lars.colorpicker.components.panels;
 
 import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.List;
-
 import javax.swing.JPanel;
 
 import de.lars.colorpicker.components.events.ColorValueChangeEvent;
 import de.lars.colorpicker.components.graphics.SelectorCircle;
+import de.lars.colorpicker.utils.ListenerList;
 
 /**
  * Super class of {@link ColorFieldPanel} and {@link HueSliderPanel}
@@ -18,12 +19,13 @@ import de.lars.colorpicker.components.graphics.SelectorCircle;
 public class ColorPickerPanelComponent extends JPanel {
 	private static final long serialVersionUID = -9165281910898239760L;
 	
-	protected List<ColorValueChangeEvent> colorChangeListener = new ArrayList<>();
+	protected ListenerList<ColorValueChangeEvent> colorChangeListener = new ListenerList<>(ColorValueChangeEvent.class);
 	protected int cornerRadius;
 	protected int fieldWidth, fieldHeight;
 	protected int paddingLeft, paddingRight, paddingTop, paddingBottom;
 	protected int selMinX, selMaxX, selMinY, selMaxY;	// values used for SelectorCircle
 	protected int selX, selY;
+	protected boolean analyticColor = true;
 
 	/**
 	 * Calculate new size of the color field and new position of selector
@@ -45,6 +47,36 @@ public class ColorPickerPanelComponent extends JPanel {
 		selMaxY = getHeight() - paddingBottom - 1;
 	}
 	
+	/**
+	 * Move the selector to the specified position and repaint
+	 * only the area of the old and the new selector
+	 * @param sc SelectorCircle used by the color panel
+	 * @param x new x position
+	 * @param y new y position
+	 */
+	protected void moveSelector(SelectorCircle sc, int x, int y) {
+		Rectangle dirty = sc.getBounds(selX, selY);
+		selX = x;
+		selY = y;
+		dirty.add(sc.getBounds(selX, selY));
+		repaint(dirty);
+	}
+	
+	/**
+	 * Clip the graphics to the rounded field area. The rounded clip is skipped
+	 * if the current clip lies completely inside the field, e.g. when only
+	 * the area of the selector is repainted.
+	 * @param g2d Graphics instance
+	 * @param x x position of the field
+	 * @param y y position of the field
+	 */
+	protected void clipField(Graphics2D g2d, int x, int y) {
+		RoundRectangle2D.Float field = new RoundRectangle2D.Float(x, y, fieldWidth, fieldHeight, cornerRadius, cornerRadius);
+		Rectangle bounds = g2d.getClipBounds();
+		if(bounds == null || !field.contains(bounds))
+			g2d.clip(field);
+	}
+	
 	/**
 	 * Calculates the color from the buffered image
 	 * while respecting the padding.
@@ -53,9 +85,19 @@ public class ColorPickerPanelComponent extends JPanel {
 	 * @return color at the current position of the selector
 	 */
 	protected Color getColorFromImage(BufferedImage bfi, SelectorCircle sc) {
+		return new Color(getRGBFromImage(bfi, sc));
+	}
+	
+	/**
+	 * Get the packed RGB value at the current position of the selector
+	 * @param bfi BufferedImage of the field
+	 * @param sc SelectorCircle used by the color panel
+	 * @return packed RGB value
+	 */
+	protected int getRGBFromImage(BufferedImage bfi, SelectorCircle sc) {
 		int posX = sc.checkX(selX) - paddingLeft;
 		int posY = sc.checkY(selY) - paddingTop;
-		return new Color(bfi.getRGB(posX, posY));
+		return bfi.getRGB(posX, posY);
 	}
 	
 	/**
@@ -66,15 +108,40 @@ public class ColorPickerPanelComponent extends JPanel {
 		colorChangeListener.add(listener);
 	}
 	
+	/**
+	 * Add color change listener that is held by a weak reference
+	 * @param listener {@link ColorValueChangeEvent}
+	 */
+	public void addWeakColorValueChangeListener(ColorValueChangeEvent listener) {
+		colorChangeListener.addWeak(listener);
+	}
+	
+	/**
+	 * Remove color change listener
+	 * @param listener {@link ColorValueChangeEvent}
+	 */
+	public void removeColorValueChangeListener(ColorValueChangeEvent listener) {
+		colorChangeListener.remove(listener);
+	}
+	
 	/**
 	 * Fires a color changed event
 	 * @param color changed color
 	 */
 	protected void onColorValueChanged(Color color) {
-		for(ColorValueChangeEvent listener : colorChangeListener) {
-			if(listener != null) {
-				listener.onColorValueChanged(color);
-			}
+		for(ColorValueChangeEvent listener : colorChangeListener.getListeners()) {
+			listener.onColorValueChanged(color);
+		}
+	}
+	
+	/**
+	 * Fires a color changed event without creating a {@link Color} object
+	 * @param argb packed ARGB value of the changed color
+	 * @param hue hue of the changed color
+	 */
+	protected void onColorValueChanged(int argb, float hue) {
+		for(ColorValueChangeEvent listener : colorChangeListener.getListeners()) {
+			listener.onColorValueChanged(argb, hue);
 		}
 	}
 	
@@ -83,13 +150,29 @@ public class ColorPickerPanelComponent extends JPanel {
 	 * @param hue changed hue
 	 */
 	protected void onHueValueChanged(float hue) {
-		for(ColorValueChangeEvent listener : colorChangeListener) {
-			if(listener != null) {
-				listener.onHueValueChanged(hue);;
-			}
+		for(ColorValueChangeEvent listener : colorChangeListener.getListeners()) {
+			listener.onHueValueChanged(hue);
 		}
 	}
 
+	/**
+	 * Is the selected color calculated from the selector position
+	 * @return <code>true</code> if the rendered image is not read
+	 */
+	public boolean isAnalyticColor() {
+		return analyticColor;
+	}
+
+	/**
+	 * Calculate the selected color from the selector position and the stored hue
+	 * instead of reading the pixel under the selector from the rendered image.
+	 * The result no longer depends on the resolution of the image.
+	 * @param analyticColor calculate the color?
+	 */
+	public void setAnalyticColor(boolean analyticColor) {
+		this.analyticColor = analyticColor;
+	}
+
 	public int getCornerRadius() {
 		return cornerRadius;
 	}
@@ -24,7 +24,8 @@ public class ColorPreviewPanel extends JPanel {
 	public static final int DEFAULT_SIZE = 30;
 	
 	private int padding;
-	private Color color;
+	private int rgb;		// shown color
+	private Color color;	// shown color object, created when painted
 	private int width, height;
 	private boolean isMouseOver, canAdd;
 	
@@ -44,6 +45,7 @@ public class ColorPreviewPanel extends JPanel {
 	 */
 	public ColorPreviewPanel(Color color, int size, int padding) {
 		this.color = color;
+		this.rgb = color.getRGB();
 		this.width = size;
 		this.height = size;
 		this.padding = padding;
@@ -56,7 +58,7 @@ public class ColorPreviewPanel extends JPanel {
 		super.paintComponent(g);
 		Graphics2D g2d = (Graphics2D) g.create();
 		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-		g2d.setColor(color);
+		g2d.setColor(getColor());
 		
 		int x = padding;
 		int y = padding;
@@ -100,7 +102,10 @@ public class ColorPreviewPanel extends JPanel {
 	 * @return Color
 	 */
 	public Color getColor() {
-		return color;
+		Color c = color;
+		if(c == null || c.getRGB() != rgb)
+			color = c = new Color(rgb, true);
+		return c;
 	}
 
 	/**
@@ -109,6 +114,19 @@ public class ColorPreviewPanel extends JPanel {
 	 */
 	public void setColor(Color color) {
 		this.color = color;
+		this.rgb = color.getRGB();
+		repaint();
+	}
+	
+	/**
+	 * Set shown color without creating a {@link Color} object.
+	 * The object is created when the panel is painted.
+	 * @param rgb packed RGB value of the new color
+	 */
+	public void setColor(int rgb) {
+		if(this.rgb == rgb)
+			return;
+		this.rgb = rgb;
 		repaint();
 	}
 	
@@ -1,19 +1,29 @@
 package de.lars.colorpicker.components.panels;
 
+import java.awt.CardLayout;
 import java.awt.Color;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
 import javax.swing.text.PlainDocument;
+import javax.swing.text.Segment;
 
 import de.lars.colorpicker.components.ColorValueMode;
 import de.lars.colorpicker.components.events.ColorValueChangeEvent;
 import de.lars.colorpicker.components.graphics.SwitchIcon;
 import de.lars.colorpicker.components.textfilter.LengthFilter;
 import de.lars.colorpicker.components.textfilter.NumberFilter;
+import de.lars.colorpicker.utils.ColorParser;
 import de.lars.colorpicker.utils.ColorPickerStyle;
 import de.lars.colorpicker.utils.ColorUitl;
+import de.lars.colorpicker.utils.CssColor;
 
 import java.awt.GridBagLayout;
 import java.awt.GridBagConstraints;
@@ -22,6 +32,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 
 /**
  * Panel that shows RGB, HEX and HSV values of the current selected color
@@ -31,62 +43,86 @@ import java.awt.event.FocusEvent;
 public class ColorValuesPanel extends JPanel {
 	private static final long serialVersionUID = -52773940591839018L;
 	
+	/** Delay of the field update in milliseconds, updates within one frame are combined */
+	public static final int UPDATE_DELAY = 16;
+	/** Maximum length of the input in the HEX field, which also accepts other CSS colors */
+	public static final int MAX_CSS_LENGTH = 64;
+	/** Default time in milliseconds the input must be unchanged before it is applied */
+	public static final int DEFAULT_COMMIT_DELAY = 250;
+	
+	/** Cached decimal strings of all values that can be shown in the number fields */
+	private static final String[] NUMBERS = new String[361];
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	
+	static {
+		for(int i = 0; i < NUMBERS.length; i++) {
+			NUMBERS[i] = Integer.toString(i);
+		}
+	}
+	
 	protected ColorValueMode mode = ColorValueMode.RGB;
-	private Color color; // current color
+	private int rgb;		// current color
+	private Color color;	// current color object, created when requested
 	private float hue;
 	private ColorValueChangeEvent listener;
 	protected JButton btnModeSwitch;
+	protected JPanel panelFields;	// shows the field set of the current mode
+	protected CardLayout cardLayout;
+	protected final Map<ColorValueMode, FieldSet> fieldSets = new LinkedHashMap<>();
+	protected FieldSet fieldSet;	// field set of the current mode
+	/** Fields of the current mode, <code>null</code> if the mode has less fields */
 	protected JTextField field1, field2, field3;
+	/** @deprecated labels of the current mode, use the labels of {@link #fieldSet} */
+	@Deprecated
 	protected JLabel label1, label2, label3;
+	/** @deprecated copy of the constraints of {@link #label1}, changing it has no effect */
+	@Deprecated
 	protected GridBagConstraints gbc_label1;
 	
+	private final char[] hexBuffer = new char[7];
+	private Timer updateTimer;
+	private boolean updatePending;	// values changed while the panel was not showing
+	private Timer commitTimer;		// applies the input when it did not change for the commit delay
+	private final CssColor cssParser = new CssColor();	// lenient, also accepts hex without #
+	private final Segment segment = new Segment();
+	
 	/**
 	 * Create a new color values panel with the specified initial color
 	 * @param color initial color
 	 */
 	public ColorValuesPanel(Color color) {
 		this.color = color;
+		this.rgb = color.getRGB();
+		updateTimer = new Timer(UPDATE_DELAY, updateTimerListener);
+		updateTimer.setRepeats(false);
+		commitTimer = new Timer(DEFAULT_COMMIT_DELAY, commitTimerListener);
+		commitTimer.setRepeats(false);
+		addHierarchyListener(showingListener);
 		GridBagLayout gridBagLayout = new GridBagLayout();
-		gridBagLayout.columnWeights = new double[]{1.0, 1.0, 1.0, 0.0};
-		gridBagLayout.columnWidths = new int[]{100, 100, 100, 50};
+		gridBagLayout.columnWeights = new double[]{1.0, 0.0};
+		gridBagLayout.columnWidths = new int[]{300, 50};
 		setLayout(gridBagLayout);
 		setBackground(ColorPickerStyle.colorBackground);
 		
-		label1 = new JLabel("lbl1");
-		label1.setForeground(ColorPickerStyle.colorText);
-		gbc_label1 = new GridBagConstraints();
-		gbc_label1.insets = new Insets(0, 0, 5, 5);
-		gbc_label1.gridy = 0;
-		gbc_label1.gridx = 0;
-		add(label1, gbc_label1);
-		
-		label2 = new JLabel("lbl2");
-		label2.setForeground(ColorPickerStyle.colorText);
-		GridBagConstraints gbc_label2 = new GridBagConstraints();
-		gbc_label2.insets = new Insets(0, 0, 5, 5);
-		gbc_label2.gridx = 1;
-		gbc_label2.gridy = 0;
-		add(label2, gbc_label2);
-		
-		label3 = new JLabel("lbl3");
-		label3.setForeground(ColorPickerStyle.colorText);
-		GridBagConstraints gbc_label3 = new GridBagConstraints();
-		gbc_label3.insets = new Insets(0, 0, 5, 5);
-		gbc_label3.gridx = 2;
-		gbc_label3.gridy = 0;
-		add(label3, gbc_label3);
-		
-		field1 = new JTextField();
-		field1.addFocusListener(fieldFocusLostListener);
-		addField(0, 1, field1);
+		// build the fields of all modes once, switching modes only shows another card
+		cardLayout = new CardLayout();
+		panelFields = new JPanel(cardLayout);
+		panelFields.setBackground(ColorPickerStyle.colorBackground);
+		GridBagConstraints gbc_panelFields = new GridBagConstraints();
+		gbc_panelFields.gridx = 0;
+		gbc_panelFields.gridy = 0;
+		gbc_panelFields.fill = GridBagConstraints.BOTH;
+		add(panelFields, gbc_panelFields);
 		
-		field2 = new JTextField();
-		field2.addFocusListener(fieldFocusLostListener);
-		addField(1, 1, field2);
+		cssParser.setLenientHex(true);
 		
-		field3 = new JTextField();
-		field3.addFocusListener(fieldFocusLostListener);
-		addField(2, 1, field3);
+		for(ColorValueMode m : new ColorValueMode[] {ColorValueMode.RGB, ColorValueMode.HEX, ColorValueMode.HSV}) {
+			addFieldSet(createFieldSet(m));
+		}
+		for(ColorValueMode m : ColorValueMode.values()) {
+			if(!fieldSets.containsKey(m))
+				addFieldSet(createFieldSet(m));
+		}
 		
 		btnModeSwitch = new JButton(new SwitchIcon(Color.BLACK, 10, 15));
 		btnModeSwitch.setToolTipText("Switch Mode");
@@ -97,10 +133,9 @@ public class ColorValuesPanel extends JPanel {
 		btnModeSwitch.addActionListener(modeSwitchListener);
 		GridBagConstraints gbc_btnModeSwitch = new GridBagConstraints();
 		gbc_btnModeSwitch.insets = new Insets(0, 0, 5, 0);
-		gbc_btnModeSwitch.gridx = 3;
-		gbc_btnModeSwitch.gridy = 1;
-		gbc_btnModeSwitch.anchor = GridBagConstraints.LINE_END;
-		gbc_btnModeSwitch.fill = GridBagConstraints.BOTH;
+		gbc_btnModeSwitch.gridx = 1;
+		gbc_btnModeSwitch.gridy = 0;
+		gbc_btnModeSwitch.anchor = GridBagConstraints.LAST_LINE_END;
 		add(btnModeSwitch, gbc_btnModeSwitch);
 		
 		switchMode(mode);
@@ -132,6 +167,15 @@ public class ColorValuesPanel extends JPanel {
 	 */
 	public void setColor(Color color) {
 		this.color = color;
+		this.rgb = color.getRGB();
+	}
+	
+	/**
+	 * Set current color without creating a {@link Color} object
+	 * @param rgb packed RGB value of the new color
+	 */
+	public void setColor(int rgb) {
+		this.rgb = rgb;
 	}
 	
 	/**
@@ -139,7 +183,18 @@ public class ColorValuesPanel extends JPanel {
 	 * @return Color
 	 */
 	public Color getColor() {
-		return color;
+		Color c = color;
+		if(c == null || c.getRGB() != rgb)
+			color = c = new Color(rgb, true);
+		return c;
+	}
+	
+	/**
+	 * Get current color without creating a {@link Color} object
+	 * @return packed RGB value
+	 */
+	public int getRGB() {
+		return rgb;
 	}
 	
 	/**
@@ -159,26 +214,86 @@ public class ColorValuesPanel extends JPanel {
 	}
 	
 	/**
-	 * Update current displayed value fields
+	 * Update current displayed value fields. The update is delayed by {@link #UPDATE_DELAY},
+	 * so that multiple changes within one frame cause only one update. If the panel is
+	 * not showing, the fields are updated when it becomes visible.
 	 */
 	public void updateValues() {
+		if(!isShowing()) {
+			updatePending = true;
+			return;
+		}
+		if(!updateTimer.isRunning())
+			updateTimer.start();
+	}
+	
+	/**
+	 * Update current displayed value fields immediately.
+	 * Only fields whose value changed are set.
+	 */
+	public void updateValuesNow() {
+		updateTimer.stop();
+		updatePending = false;
 		pauseFieldListener(true); // pause listener of TextField to prevent triggering
 		if(mode == ColorValueMode.RGB)
 			modeRGBUpdateValues();
 		else if(mode == ColorValueMode.HEX)
 			modeHexUpdateValues();
-		else
+		else if(mode == ColorValueMode.HSV)
 			modeHSVUpdateValues();
 		pauseFieldListener(false);
 	}
 	
+	/**
+	 * Triggered when the delayed update is due
+	 */
+	private ActionListener updateTimerListener = new ActionListener() {
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			if(isShowing())
+				updateValuesNow();
+			else
+				updatePending = true;
+		}
+	};
+	
+	/**
+	 * Triggered when the panel is shown or hidden
+	 */
+	private HierarchyListener showingListener = new HierarchyListener() {
+		@Override
+		public void hierarchyChanged(HierarchyEvent e) {
+			if((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && updatePending && isShowing())
+				updateValuesNow();
+		}
+	};
+	
+	/**
+	 * Mark the values of all fields as unknown, the next update sets all fields
+	 */
+	protected void invalidateValues() {
+		fieldSet.invalidate();
+	}
+	
+	/**
+	 * Set the text of a number field if the value changed
+	 * @param index index of the field
+	 * @param field field
+	 * @param value new value
+	 */
+	protected void setFieldValue(int index, JTextField field, int value) {
+		if(fieldSet.shownValues[index] == value)
+			return;
+		fieldSet.shownValues[index] = value;
+		field.setText(value >= 0 && value < NUMBERS.length ? NUMBERS[value] : Integer.toString(value));
+	}
+	
 	/**
 	 * Pause all field input change listener. Used when field input is set programmatically
 	 * @param pause pause?
 	 */
 	private void pauseFieldListener(boolean pause) {
-		JTextField[] fields = {field1, field2, field3};
-		for(JTextField field : fields) {
+		for(JTextField field : fieldSet.fields) {
 			if(((PlainDocument) field.getDocument()).getDocumentFilter() instanceof NumberFilter) {
 				((NumberFilter) ((PlainDocument) field.getDocument()).getDocumentFilter()).setPauseListener(pause);
 			}
@@ -199,170 +314,342 @@ public class ColorValuesPanel extends JPanel {
 		updateValues();
 	}
 
+	/**
+	 * Set the time the input must be unchanged before it is applied to the color.
+	 * Pressing Enter or leaving the field applies the input immediately.
+	 * @param delay delay in milliseconds, <code>0</code> to apply every keystroke
+	 */
+	public void setCommitDelay(int delay) {
+		if(delay < 0)
+			throw new IllegalArgumentException("Delay must not be negative: " + delay);
+		commitTimer.setInitialDelay(delay);
+		if(delay == 0)
+			commitPendingInput();
+	}
+	
+	public int getCommitDelay() {
+		return commitTimer.getInitialDelay();
+	}
+	
+	/**
+	 * Apply input that is waiting for the commit delay
+	 */
+	public void commitPendingInput() {
+		if(commitTimer.isRunning()) {
+			commitTimer.stop();
+			commitInput();
+		}
+	}
+	
 	/**
 	 * Switch to the specified mode
 	 * @param mode value mode (RGB, HEX, HSV)
 	 */
 	public void switchMode(ColorValueMode mode) {
+		FieldSet set = fieldSets.get(mode);
+		if(set == null)
+			throw new IllegalArgumentException("No fields for mode " + mode);
+		commitPendingInput();
 		this.mode = mode;
-		if(mode == ColorValueMode.RGB)
-			modeRGB();
-		else if(mode == ColorValueMode.HEX)
-			modeHex();
-		else
-			modeHSV();
-		// update values
-		updateValues();
-		revalidate();
-		updateUI();
+		fieldSet = set;
+		field1 = set.fields.length > 0 ? set.fields[0] : null;
+		field2 = set.fields.length > 1 ? set.fields[1] : null;
+		field3 = set.fields.length > 2 ? set.fields[2] : null;
+		label1 = set.labels[0];
+		label2 = set.labels[1];
+		label3 = set.labels[2];
+		gbc_label1 = label1 != null ? ((GridBagLayout) set.panel.getLayout()).getConstraints(label1) : null;
+		// update values, only fields that changed since the mode was shown last are set
+		updateValuesNow();
+		cardLayout.show(panelFields, mode.name());
 	}
 	
 	/**
 	 * Circle between the value modes
 	 */
 	public void circleMode() {
-		if(mode == ColorValueMode.RGB)
-			mode = ColorValueMode.HEX;
-		else if(mode == ColorValueMode.HEX)
-			mode = ColorValueMode.HSV;
-		else
-			mode = ColorValueMode.RGB;
-		switchMode(mode);
+		ColorValueMode first = null;
+		boolean next = false;
+		for(ColorValueMode m : fieldSets.keySet()) {
+			if(next) {
+				switchMode(m);
+				return;
+			}
+			if(first == null)
+				first = m;
+			next = m == mode;
+		}
+		switchMode(first);
+	}
+	
+	
+	/**
+	 * Create the labels and fields of a mode
+	 * @param mode value mode
+	 * @return new field set
+	 */
+	protected FieldSet createFieldSet(ColorValueMode mode) {
+		switch(mode) {
+			case HEX:
+				FieldSet hex = new FieldSet(mode, 1);
+				hex.labels[0] = addLabel(hex.panel, 0, "");
+				hex.labels[1] = addLabel(hex.panel, 1, "HEX");
+				hex.labels[2] = addLabel(hex.panel, 2, "");
+				hex.fields[0] = addField(hex.panel, 0, 3, new LengthFilter(MAX_CSS_LENGTH, fieldInputListener));
+				hex.fields[0].setToolTipText("Hex or CSS color, e.g. #ff8000, rgb(255, 128, 0), hsl(30, 100%, 50%) or orange");
+				return hex;
+			case HSV:
+				return createNumberFieldSet(mode, "H", "S", "V");
+			default:
+				return createNumberFieldSet(mode, "R", "G", "B");
+		}
 	}
 	
+	/**
+	 * Create a field set with one number field per label
+	 * @param mode value mode
+	 * @param labels label text of the fields
+	 * @return new field set
+	 */
+	protected FieldSet createNumberFieldSet(ColorValueMode mode, String... labels) {
+		FieldSet set = new FieldSet(mode, labels.length);
+		for(int i = 0; i < labels.length; i++) {
+			JLabel label = addLabel(set.panel, i, labels[i]);
+			if(i < set.labels.length)
+				set.labels[i] = label;
+			PlainDocument document = new PlainDocument();
+			document.setDocumentFilter(new NumberFilter(3, fieldInputListener));
+			set.fields[i] = addField(set.panel, i, 1, document);
+		}
+		return set;
+	}
 	
+	private void addFieldSet(FieldSet set) {
+		fieldSets.put(set.mode, set);
+		panelFields.add(set.panel, set.mode.name());
+	}
+	
+	
+	/**
+	 * @deprecated the fields of all modes are built once, use {@link #switchMode(ColorValueMode)}
+	 */
+	@Deprecated
 	protected void modeRGB() {
-		removeFields();
-		addField(0, 1, field1);
-		addField(1, 1, field2);
-		addField(2, 1, field3);
-		label1.setText("R");
-		label2.setText("G");
-		label3.setText("B");
+		switchMode(ColorValueMode.RGB);
 	}
 	
-	protected void modeRGBUpdateValues() {
-		field1.setText(String.valueOf(color.getRed()));
-		field2.setText(String.valueOf(color.getGreen()));
-		field3.setText(String.valueOf(color.getBlue()));
+	/**
+	 * @deprecated the fields of all modes are built once, use {@link #switchMode(ColorValueMode)}
+	 */
+	@Deprecated
+	protected void modeHex() {
+		switchMode(ColorValueMode.HEX);
 	}
 	
+	/**
+	 * @deprecated the fields of all modes are built once, use {@link #switchMode(ColorValueMode)}
+	 */
+	@Deprecated
 	protected void modeHSV() {
-		removeFields();
-		addField(0, 1, field1);
-		addField(1, 1, field2);
-		addField(2, 1, field3);
-		label1.setText("H");
-		label2.setText("S");
-		label3.setText("V");
+		switchMode(ColorValueMode.HSV);
+	}
+	
+	protected void modeRGBUpdateValues() {
+		setFieldValue(0, field1, (rgb >> 16) & 0xFF);
+		setFieldValue(1, field2, (rgb >> 8) & 0xFF);
+		setFieldValue(2, field3, rgb & 0xFF);
 	}
 	
 	protected void modeHSVUpdateValues() {
-		float[] hsb = Color.RGBtoHSB(color.getRed(), color.getGreen(), color.getBlue(), null);
-		hsb[0] = hue;
-		int[] hsv = ColorUitl.convertToHSV(hsb);
+		int r = (rgb >> 16) & 0xFF;
+		int g = (rgb >> 8) & 0xFF;
+		int b = rgb & 0xFF;
+		int max = Math.max(r, Math.max(g, b));
+		int min = Math.min(r, Math.min(g, b));
+		// same rounding as ColorUitl.convertToHSV(Color.RGBtoHSB(r, g, b, null))
+		float saturation = max != 0 ? (float) (max - min) / (float) max : 0f;
+		float brightness = (float) max / 255f;
 		
-		field1.setText(String.valueOf(hsv[0]));
-		field2.setText(String.valueOf(hsv[1]));
-		field3.setText(String.valueOf(hsv[2]));
+		setFieldValue(0, field1, Math.round(hue * 360f));
+		setFieldValue(1, field2, Math.round(saturation * 100f));
+		setFieldValue(2, field3, Math.round(brightness * 100f));
 	}
 	
-	protected void modeHex() {
-		removeFields();
-		addField(0, 3, field1);
-		label1.setText("");
-		label2.setText("HEX");
-		label3.setText("");
+	protected void modeHexUpdateValues() {
+		int value = rgb & 0xFFFFFF;
+		if(fieldSet.shownValues[0] == value)
+			return;
+		fieldSet.shownValues[0] = value;
+		hexBuffer[0] = '#';
+		for(int i = 6; i > 0; i--) {
+			hexBuffer[i] = HEX_DIGITS[value & 0xF];
+			value >>= 4;
+		}
+		field1.setText(new String(hexBuffer));
 	}
 	
-	protected void modeHexUpdateValues() {
-		field1.setText(String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue()));
+	
+	/**
+	 * Add a label to the first row of a field set
+	 * @param panel panel of the field set
+	 * @param index grid x (column)
+	 * @param text label text
+	 * @return new label
+	 */
+	protected JLabel addLabel(JPanel panel, int index, String text) {
+		JLabel label = new JLabel(text);
+		label.setForeground(ColorPickerStyle.colorText);
+		GridBagConstraints gbc = new GridBagConstraints();
+		gbc.insets = new Insets(0, 0, 5, 5);
+		gbc.gridy = 0;
+		gbc.gridx = index;
+		panel.add(label, gbc);
+		return label;
 	}
 	
+	/**
+	 * Add field to the second row of a field set
+	 * @param panel panel of the field set
+	 * @param index grid x (column)
+	 * @param width grid width ({@link GridBagConstraints#gridx})
+	 * @param document document of the field, contains the input filter
+	 * @return new field
+	 */
+	protected JTextField addField(JPanel panel, int index, int width, PlainDocument document) {
+		JTextField field = new JTextField(document, null, 0);
+		field.addFocusListener(fieldFocusLostListener);
+		field.addActionListener(fieldEnterListener);
+		placeField(panel, index, width, field);
+		return field;
+	}
 	
 	/**
-	 * Add field to the {@link GridBagLayout}
+	 * Add field to the second row of the field set of the current mode.
+	 * The field gets a new document with the input filter of the current mode.
 	 * @param index grid x (column)
 	 * @param width grid width ({@link GridBagConstraints#gridx})
 	 * @param field field to add
+	 * @deprecated use {@link #addField(JPanel, int, int, PlainDocument)} in {@link #createFieldSet(ColorValueMode)}
 	 */
+	@Deprecated
 	protected void addField(int index, int width, JTextField field) {
-		field.setHorizontalAlignment(JTextField.CENTER);
-		
-		((PlainDocument) field.getDocument()).setDocumentFilter(null);
-		field.setDocument(new PlainDocument());
-		if(mode == ColorValueMode.RGB || mode == ColorValueMode.HSV) {
-			((PlainDocument) field.getDocument()).setDocumentFilter(new NumberFilter(3, fieldInputListener));
-		} else if(mode == ColorValueMode.HEX) {
-			field.setDocument(new LengthFilter(7, fieldInputListener));
+		PlainDocument document;
+		if(mode == ColorValueMode.HEX) {
+			document = new LengthFilter(MAX_CSS_LENGTH, fieldInputListener);
+		} else {
+			document = new PlainDocument();
+			document.setDocumentFilter(new NumberFilter(3, fieldInputListener));
 		}
-		
+		field.setDocument(document);
+		placeField(fieldSet.panel, index, width, field);
+	}
+	
+	private void placeField(JPanel panel, int index, int width, JTextField field) {
+		field.setHorizontalAlignment(JTextField.CENTER);
 		GridBagConstraints gbc = new GridBagConstraints();
 		gbc.insets = new Insets(0, 0, 5, 10);
 		gbc.gridy = 1;
 		gbc.gridx = index;
 		gbc.fill = GridBagConstraints.BOTH;
 		gbc.gridwidth = width;
-		add(field, gbc);
+		panel.add(field, gbc);
 	}
 	
+	
 	/**
-	 * Remove all fields from the panel
+	 * Triggered on text input
 	 */
-	private void removeFields() {
-		remove(field1);
-		remove(field2);
-		remove(field3);
-		for(JTextField field : new JTextField[] {field1, field2, field3}) {
-			((PlainDocument) field.getDocument()).setDocumentFilter(null);
-			field.setDocument(new PlainDocument());
+	protected ActionListener fieldInputListener = new ActionListener() {
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			invalidateValues(); // the fields were edited by the user
+			if(commitTimer.getInitialDelay() > 0)
+				commitTimer.restart();
+			else
+				commitInput();
 		}
-	}
+	};
 	
+	/**
+	 * Triggered when the input did not change for the commit delay
+	 */
+	private ActionListener commitTimerListener = new ActionListener() {
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			commitInput();
+		}
+	};
 	
 	/**
-	 * Triggered on text input
+	 * Triggered when Enter is pressed in a field
 	 */
-	protected ActionListener fieldInputListener = new ActionListener() {
+	private ActionListener fieldEnterListener = new ActionListener() {
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			Color c = color;
-			try {
-				
-				if(mode == ColorValueMode.RGB) {
-					int r = Integer.parseInt(field1.getText());
-					int g = Integer.parseInt(field2.getText());
-					int b = Integer.parseInt(field3.getText());
-					c = new Color(r, g, b);
-					hue = ColorUitl.getHueFromColor(c);
-				} else if(mode == ColorValueMode.HEX) {
-					c = Color.decode(field1.getText());
-					hue = ColorUitl.getHueFromColor(c);
-				} else if(mode == ColorValueMode.HSV) {
-					int[] hsv = new int[3];
-					hsv[0] = Integer.parseInt(field1.getText());
-					hsv[1] = Integer.parseInt(field2.getText());
-					hsv[2] = Integer.parseInt(field3.getText());
-					float[] hsb = ColorUitl.convertToHSB(hsv);
-					c = Color.getHSBColor(hsb[0], hsb[1], hsb[2]);
-					hue = hsb[0];
-				}
-				
-				color = c;
-				fireChangeEvent();
-				
-			} catch(IllegalArgumentException ex) {
-				//ex.printStackTrace();
-			}
+			commitPendingInput();
 		}
 	};
 	
+	/**
+	 * Parse the input of the fields and fire a change event if it is a valid color.
+	 * Invalid or incomplete input is ignored.
+	 */
+	protected void commitInput() {
+		int newRGB;
+		float newHue;
+		if(mode == ColorValueMode.RGB) {
+			int r = ColorParser.parseInt(getFieldText(field1), 255);
+			int g = ColorParser.parseInt(getFieldText(field2), 255);
+			int b = ColorParser.parseInt(getFieldText(field3), 255);
+			if(r == ColorParser.INVALID || g == ColorParser.INVALID || b == ColorParser.INVALID)
+				return;
+			newRGB = 0xFF000000 | (r << 16) | (g << 8) | b;
+			newHue = ColorUitl.getHueFromRGB(newRGB);
+		} else if(mode == ColorValueMode.HEX) {
+			long value = cssParser.parse(getFieldText(field1));
+			if(value == CssColor.INVALID)
+				return;
+			newRGB = 0xFF000000 | (int) value;	// the picker has no alpha
+			newHue = ColorUitl.getHueFromRGB(newRGB);
+		} else if(mode == ColorValueMode.HSV) {
+			int h = ColorParser.parseInt(getFieldText(field1), 360);
+			int s = ColorParser.parseInt(getFieldText(field2), 100);
+			int v = ColorParser.parseInt(getFieldText(field3), 100);
+			if(h == ColorParser.INVALID || s == ColorParser.INVALID || v == ColorParser.INVALID)
+				return;
+			float[] hsb = ColorUitl.convertToHSB(new int[] {h, s, v});
+			newRGB = Color.HSBtoRGB(hsb[0], hsb[1], hsb[2]);
+			newHue = hsb[0];
+		} else {
+			return;
+		}
+		setColor(newRGB);
+		hue = newHue;
+		fireChangeEvent();
+	}
+	
+	/**
+	 * Get the text of a field without creating a String. The returned
+	 * sequence is only valid until the next call.
+	 * @param field text field
+	 * @return text of the field
+	 */
+	protected CharSequence getFieldText(JTextField field) {
+		Document document = field.getDocument();
+		try {
+			document.getText(0, document.getLength(), segment);
+		} catch(BadLocationException e) {
+			segment.count = 0;
+		}
+		return segment;
+	}
+	
 	/**
 	 * Trigger listener
 	 */
 	protected void fireChangeEvent() {
 		if(listener != null) {
-			listener.onColorValueChanged(color);
+			listener.onColorValueChanged(getColor());
 			listener.onHueValueChanged(hue);
 		}
 	}
@@ -380,8 +667,42 @@ public class ColorValuesPanel extends JPanel {
 						field.setText("0");
 					}
 				}
+				commitPendingInput();
 			}
 		};
 	};
+	
+	
+	/**
+	 * Labels and fields of a {@link ColorValueMode}, built once and shown as card
+	 */
+	protected static class FieldSet {
+		protected final ColorValueMode mode;
+		protected final JPanel panel;
+		protected final JTextField[] fields;
+		protected final JLabel[] labels = new JLabel[3];	// labels of the first three columns
+		protected final int[] shownValues;	// values currently shown in the fields, -1 = unknown
+		
+		protected FieldSet(ColorValueMode mode, int fieldCount) {
+			this.mode = mode;
+			this.fields = new JTextField[fieldCount];
+			this.shownValues = new int[fieldCount];
+			invalidate();
+			GridBagLayout layout = new GridBagLayout();
+			layout.columnWeights = new double[]{1.0, 1.0, 1.0};
+			layout.columnWidths = new int[]{100, 100, 100};
+			panel = new JPanel(layout);
+			panel.setBackground(ColorPickerStyle.colorBackground);
+		}
+		
+		/**
+		 * Mark the values of all fields as unknown
+		 */
+		protected void invalidate() {
+			for(int i = 0; i < shownValues.length; i++) {
+				shownValues[i] = -1;
+			}
+		}
+	}
 
 }
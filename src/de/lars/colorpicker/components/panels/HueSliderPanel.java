@@ -4,11 +4,11 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.Shape;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionAdapter;
-import java.awt.geom.RoundRectangle2D;
 
 import de.lars.colorpicker.components.graphics.ColorPickerHueSlider;
 import de.lars.colorpicker.components.graphics.SelectorCircle;
@@ -26,6 +26,8 @@ public class HueSliderPanel extends ColorPickerPanelComponent {
 	private ColorPickerHueSlider cpHueSlider;
 	private SelectorCircle sc;
 	private float hue;
+	private int hueRGB;		// color of the selector
+	private Color hueColor;	// color object of the selector, created when painted
 	
 	/**
 	 * Create a new hue slider panel with initial color red
@@ -40,6 +42,8 @@ public class HueSliderPanel extends ColorPickerPanelComponent {
 	 */
 	public HueSliderPanel(Color color) {
 		this.hue = ColorUitl.getHueFromColor(color);
+		this.hueColor = ColorUitl.getColorFromHue(hue);
+		this.hueRGB = hueColor.getRGB();
 		paddingTop = 4;
 		paddingBottom = 4;
 		update();
@@ -59,19 +63,23 @@ public class HueSliderPanel extends ColorPickerPanelComponent {
 		
 		int x = paddingLeft, y = paddingTop;
 		
-		g2d.setClip(new RoundRectangle2D.Float(x, y, fieldWidth, fieldHeight, cornerRadius, cornerRadius));
+		Shape clip = g2d.getClip();
+		clipField(g2d, x, y);
 		
-		if(cpHueSlider.getBufferedImage() != null) {
+		if(fieldWidth > 0 && fieldHeight > 0) {
 			// draw hue slider background
-			g2d.drawImage(cpHueSlider.getBufferedImage(), x, y, this);
+			cpHueSlider.draw(g2d, x, y);
 			
 			// draw color selector
-			g2d.setClip(null);
-			Color selColor = getColorFromImage(cpHueSlider.getBufferedImage(), sc);
-			sc.setColor(selColor);
+			g2d.setClip(clip);
+			if(!analyticColor) {
+				hueRGB = getRGBFromImage(cpHueSlider.getBufferedImage(), sc);
+				hue = ColorUitl.getHueFromRGB(hueRGB);
+			}
+			if(hueColor == null || hueColor.getRGB() != hueRGB)
+				hueColor = new Color(hueRGB);
+			sc.setColor(hueColor);
 			sc.draw(g2d, selX, selY);
-			
-			hue = ColorUitl.getHueFromColor(selColor);
 		}
 		g2d.dispose();
 	}
@@ -104,16 +112,36 @@ public class HueSliderPanel extends ColorPickerPanelComponent {
 	 * @param e the MouseEvent that was triggered
 	 */
 	protected void onMouseEvent(MouseEvent e) {
-		// set coordinates of color selector and repaint
-		selX = e.getX();
-		repaint();
+		// set coordinates of color selector and repaint the selector area
+		moveSelector(sc, e.getX(), selY);
 		// fire change events
-		Color selColor = sc.getColor();
-		if(cpHueSlider.getBufferedImage() != null)
-			selColor = getColorFromImage(cpHueSlider.getBufferedImage(), sc); // try to get color from current image
-		float hue = Color.RGBtoHSB(selColor.getRed(), selColor.getGreen(), selColor.getBlue(), null)[0];
+		if(analyticColor) {
+			setHueColor(getHueFromPosition());
+		} else if(cpHueSlider.getBufferedImage() != null) {
+			hueRGB = getRGBFromImage(cpHueSlider.getBufferedImage(), sc); // try to get color from current image
+			hue = ColorUitl.getHueFromRGB(hueRGB);
+		}
 		onHueValueChanged(hue);
-		onColorValueChanged(selColor);
+		onColorValueChanged(hueRGB, hue);
+	}
+	
+	/**
+	 * Calculates the hue at the current position of the selector
+	 * @return float 0..1
+	 */
+	protected float getHueFromPosition() {
+		if(fieldWidth <= 1)
+			return 0f;
+		return (float) (sc.checkX(selX) - paddingLeft) / (fieldWidth - 1);
+	}
+	
+	/**
+	 * Set the hue and the selector color
+	 * @param hue float 0..1
+	 */
+	private void setHueColor(float hue) {
+		this.hue = hue;
+		hueRGB = Color.HSBtoRGB(hue, 1f, 1f);
 	}
 	
 	/**
@@ -141,8 +169,9 @@ public class HueSliderPanel extends ColorPickerPanelComponent {
 	public void setSelectedHue(float hue) {
 		if(hue > 1f) hue = 1f;
 		int relativePos = (int) (fieldWidth * hue);
-		selX = relativePos + paddingLeft;
-		repaint();
+		if(analyticColor)
+			setHueColor(hue);
+		moveSelector(sc, relativePos + paddingLeft, selY);
 	}
 	
 	/**
@@ -7,6 +7,8 @@ import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DocumentFilter;
 
+import de.lars.colorpicker.utils.ColorParser;
+
 /**
  * Limits input of a JTextField to only numbers
  * @author Lars O.
@@ -69,12 +71,7 @@ public class NumberFilter extends DocumentFilter {
 	
 	
 	private boolean isNumber(String text) {
-		try {
-			Integer.parseInt(text);
-			return true;
-		} catch(NumberFormatException e) {
-			return false;
-		}
+		return ColorParser.isDigits(text);
 	}
 	
 	private boolean isMaxLength(int length) {
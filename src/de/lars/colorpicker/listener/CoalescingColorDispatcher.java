@@ -0,0 +1,130 @@
+package de.lars.colorpicker.listener;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Delivers color changes at a limited rate.
+ * <p>Colors passed to {@link #fire(int, float)} are coalesced to the latest color,
+ * which is delivered at most <code>maxRate</code> times per second on the
+ * specified executor. The last fired color is always delivered.
+ * Deliveries never overlap, even if the executor uses multiple threads.</p>
+ * @author Lars O.
+ *
+ */
+public class CoalescingColorDispatcher {
+
+	/** Waits for the next delivery time, shared by all dispatchers */
+	private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "ColorPicker-Dispatcher");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/** Runs tasks on the event dispatch thread */
+	public static final Executor EDT_EXECUTOR = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			SwingUtilities.invokeLater(command);
+		}
+	};
+
+	/** Never produced by {@link #pack(int, float)}, Float.floatToIntBits returns a single canonical NaN */
+	private static final long NO_COLOR = 0x7FC00001L << 32;
+
+	private final PrimitiveColorListener target;
+	private final Executor executor;
+	private final long periodNanos;
+	/** Latest color, hue bits in the upper and ARGB in the lower half, or {@link #NO_COLOR} */
+	private final AtomicLong latest = new AtomicLong(NO_COLOR);
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private volatile long lastDelivery;
+
+	/**
+	 * Create a new dispatcher
+	 * @param target receives the coalesced colors
+	 * @param maxRate maximum number of deliveries per second
+	 * @param executor executor that delivers the colors or <code>null</code> for the event dispatch thread
+	 */
+	public CoalescingColorDispatcher(PrimitiveColorListener target, int maxRate, Executor executor) {
+		if(maxRate <= 0)
+			throw new IllegalArgumentException("Rate must be positive: " + maxRate);
+		this.target = target;
+		this.executor = executor != null ? executor : EDT_EXECUTOR;
+		this.periodNanos = TimeUnit.SECONDS.toNanos(1) / maxRate;
+		this.lastDelivery = System.nanoTime() - periodNanos;
+	}
+
+	/**
+	 * Submit a new color. Replaces a color that was not delivered yet.
+	 * @param argb packed ARGB value of the new color
+	 * @param hue hue of the new color
+	 */
+	public void fire(int argb, float hue) {
+		latest.set(pack(argb, hue));
+		if(scheduled.compareAndSet(false, true))
+			schedule();
+	}
+
+	private static long pack(int argb, float hue) {
+		return ((long) Float.floatToIntBits(hue) << 32) | (argb & 0xFFFFFFFFL);
+	}
+
+	private void schedule() {
+		long delay = lastDelivery + periodNanos - System.nanoTime();
+		if(delay <= 0) {
+			executor.execute(deliverTask);
+		} else {
+			scheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					executor.execute(deliverTask);
+				}
+			}, delay, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Delivers the latest color and schedules the next delivery if
+	 * a new color was fired in the meantime
+	 */
+	private final Runnable deliverTask = new Runnable() {
+		@Override
+		public void run() {
+			long color = latest.getAndSet(NO_COLOR);
+			try {
+				if(color != NO_COLOR) {
+					lastDelivery = System.nanoTime();
+					target.onColorChanged((int) color, Float.intBitsToFloat((int) (color >>> 32)));
+				}
+			} finally {
+				scheduled.set(false);
+				if(latest.get() != NO_COLOR && scheduled.compareAndSet(false, true))
+					schedule();
+			}
+		}
+	};
+
+	/**
+	 * Get the maximum number of deliveries per second
+	 * @return maximum rate
+	 */
+	public int getMaxRate() {
+		return (int) (TimeUnit.SECONDS.toNanos(1) / periodNanos);
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+}
@@ -0,0 +1,16 @@
+package de.lars.colorpicker.listener;
+
+/**
+ * Listener for receiving color change events as primitive values.
+ * Unlike {@link ColorListener} no objects are created for the events.
+ */
+public interface PrimitiveColorListener {
+
+	/**
+	 * Invoked when a color changes
+	 * @param argb packed ARGB value of the color
+	 * @param hue hue of the color <code>(0.0F..1.0F)</code>, also valid for gray colors
+	 */
+	void onColorChanged(int argb, float hue);
+
+}
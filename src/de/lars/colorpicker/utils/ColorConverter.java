@@ -0,0 +1,515 @@
+package de.lars.colorpicker.utils;
+
+import java.awt.Color;
+
+/**
+ * Batch conversion between color spaces.
+ * <p>Colors are read from and written to caller supplied buffers: packed ARGB values
+ * in an <code>int[]</code> or the three components in separate <code>float[]</code>s
+ * (struct of arrays). No objects are allocated per color, so the methods can be used
+ * to convert large images or LED buffers.
+ * Float to float conversions may use the same arrays for input and output.</p>
+ * <p>Value ranges:</p>
+ * <ul>
+ * <li>RGB: packed ARGB, the alpha of converted colors is <code>255</code></li>
+ * <li>HSB (HSV): hue, saturation and brightness <code>(0.0F..1.0F)</code>, like {@link Color#RGBtoHSB(int, int, int, float[])}</li>
+ * <li>HSL: hue, saturation and lightness <code>(0.0F..1.0F)</code></li>
+ * <li>linear RGB: <code>(0.0F..1.0F)</code></li>
+ * <li>XYZ: CIE 1931 XYZ with D65 white point, Y <code>(0.0F..1.0F)</code></li>
+ * <li>Lab: CIELAB with D65 white point, L <code>(0.0F..100.0F)</code></li>
+ * <li>OKLab: L <code>(0.0F..1.0F)</code></li>
+ * <li>OKLCH: L <code>(0.0F..1.0F)</code>, chroma, hue in degrees <code>(0.0F..360.0F)</code></li>
+ * </ul>
+ * <p>Colors outside of the sRGB gamut are clipped when they are converted to RGB.</p>
+ * @author Lars O.
+ *
+ */
+public class ColorConverter {
+
+	// D65 reference white
+	private static final float XN = 0.95047f, YN = 1.0f, ZN = 1.08883f;
+	// CIELAB constants
+	private static final float EPSILON = 216f / 24389f;
+	private static final float KAPPA = 24389f / 27f;
+
+	private ColorConverter() {
+	}
+
+
+	/*==========
+	 * RGB <-> HSB
+	 *==========*/
+
+	/**
+	 * Convert packed RGB to HSB (HSV)
+	 * @param argb packed ARGB values
+	 * @param srcPos index of the first color in <code>argb</code>
+	 * @param hue output hue
+	 * @param sat output saturation
+	 * @param bri output brightness
+	 * @param dstPos index of the first color in the output arrays
+	 * @param length number of colors
+	 */
+	public static void rgbToHsb(int[] argb, int srcPos, float[] hue, float[] sat, float[] bri, int dstPos, int length) {
+		for(int i = 0; i < length; i++) {
+			int c = argb[srcPos + i];
+			int r = (c >> 16) & 0xFF;
+			int g = (c >> 8) & 0xFF;
+			int b = c & 0xFF;
+			int max = Math.max(r, Math.max(g, b));
+			int min = Math.min(r, Math.min(g, b));
+			int d = dstPos + i;
+			bri[d] = max / 255f;
+			sat[d] = max != 0 ? (float) (max - min) / max : 0f;
+			hue[d] = hue(r, g, b, max, min);
+		}
+	}
+
+	/**
+	 * Convert HSB (HSV) to packed RGB
+	 * @param hue hue
+	 * @param sat saturation
+	 * @param bri brightness
+	 * @param srcPos index of the first color in the input arrays
+	 * @param argb output packed ARGB values
+	 * @param dstPos index of the first color in <code>argb</code>
+	 * @param length number of colors
+	 */
+	public static void hsbToRgb(float[] hue, float[] sat, float[] bri, int srcPos, int[] argb, int dstPos, int length) {
+		for(int i = 0; i < length; i++) {
+			int s = srcPos + i;
+			argb[dstPos + i] = Color.HSBtoRGB(hue[s], sat[s], bri[s]);
+		}
+	}
+
+	/**
+	 * Hue of an RGB color, same as {@link Color#RGBtoHSB(int, int, int, float[])}
+	 */
+	static float hue(int r, int g, int b, int max, int min) {
+		if(max == min)
+			return 0f;
+		float range = max - min;
+		float redc = (max - r) / range;
+		float greenc = (max - g) / range;
+		float bluec = (max - b) / range;
+		float h;
+		if(r == max)
+			h = bluec - greenc;
+		else if(g == max)
+			h = 2.0f + redc - bluec;
+		else
+			h = 4.0f + greenc - redc;
+		h /= 6.0f;
+		return h < 0 ? h + 1.0f : h;
+	}
+
+
+	/*==========
+	 * RGB <-> HSL
+	 *==========*/
+
+	/**
+	 * Convert packed RGB to HSL
+	 * @param argb packed ARGB values
+	 * @param srcPos index of the first color in <code>argb</code>
+	 * @param hue output hue
+	 * @param sat output saturation
+	 * @param light output lightness
+	 * @param dstPos index of the first color in the output arrays
+	 * @param length number of colors
+	 */
+	public static void rgbToHsl(int[] argb, int srcPos, float[] hue, float[] sat, float[] light, int dstPos, int length) {
+		for(int i = 0; i < length; i++) {
+			int c = argb[srcPos + i];
+			int r = (c >> 16) & 0xFF;
+			int g = (c >> 8) & 0xFF;
+			int b = c & 0xFF;
+			int max = Math.max(r, Math.max(g, b));
+			int min = Math.min(r, Math.min(g, b));
+			int sum = max + min;
+			int d = dstPos + i;
+			light[d] = sum / 510f;
+			if(max == min)
+				sat[d] = 0f;
+			else
+				sat[d] = (float) (max - min) / (sum <= 255 ? sum : 510 - sum);
+			hue[d] = hue(r, g, b, max, min);
+		}
+	}
+
+	/**
+	 * Convert HSL to packed RGB
+	 * @param hue hue
+	 * @param sat saturation
+	 * @param light lightness
+	 * @param srcPos index of the first color in the input arrays
+	 * @param argb output packed ARGB values
+	 * @param dstPos index of the first color in <code>argb</code>
+	 * @param length number of colors
+	 */
+	public static void hslToRgb(float[] hue, float[] sat, float[] light, int srcPos, int[] argb, int dstPos, int length) {
+		for(int i = 0; i < length; i++) {
+			int s = srcPos + i;
+			float l = light[s];
+			float v = l + sat[s] * Math.min(l, 1f - l);	// HSB brightness
+			float sv = v > 0f ? 2f * (1f - l / v) : 0f;		// HSB saturation
+			argb[dstPos + i] = Color.HSBtoRGB(hue[s], sv, v);
+		}
+	}
+
+	/**
+	 * Convert HSB to HSL
+	 * @param hue hue (not changed)
+	 * @param sat saturation, input HSB saturation and output HSL saturation
+	 * @param value input brightness, output lightness
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void hsbToHsl(float[] hue, float[] sat, float[] value, int pos, int length) {
+		for(int i = pos; i < pos + length; i++) {
+			float v = value[i];
+			float l = v * (1f - sat[i] / 2f);
+			sat[i] = l > 0f && l < 1f ? (v - l) / Math.min(l, 1f - l) : 0f;
+			value[i] = l;
+		}
+	}
+
+	/**
+	 * Convert HSL to HSB
+	 * @param hue hue (not changed)
+	 * @param sat saturation, input HSL saturation and output HSB saturation
+	 * @param light input lightness, output brightness
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void hslToHsb(float[] hue, float[] sat, float[] light, int pos, int length) {
+		for(int i = pos; i < pos + length; i++) {
+			float l = light[i];
+			float v = l + sat[i] * Math.min(l, 1f - l);
+			sat[i] = v > 0f ? 2f * (1f - l / v) : 0f;
+			light[i] = v;
+		}
+	}
+
+
+	/*==========
+	 * RGB <-> linear RGB
+	 *==========*/
+
+	/**
+	 * Convert packed sRGB to linear RGB
+	 * @param argb packed ARGB values
+	 * @param srcPos index of the first color in <code>argb</code>
+	 * @param r output red
+	 * @param g output green
+	 * @param b output blue
+	 * @param dstPos index of the first color in the output arrays
+	 * @param length number of colors
+	 */
+	public static void rgbToLinear(int[] argb, int srcPos, float[] r, float[] g, float[] b, int dstPos, int length) {
+		for(int i = 0; i < length; i++) {
+			int c = argb[srcPos + i];
+			int d = dstPos + i;
+			r[d] = ColorUitl.srgbToLinear(c >> 16);
+			g[d] = ColorUitl.srgbToLinear(c >> 8);
+			b[d] = ColorUitl.srgbToLinear(c);
+		}
+	}
+
+	/**
+	 * Convert linear RGB to packed sRGB
+	 * @param r red
+	 * @param g green
+	 * @param b blue
+	 * @param srcPos index of the first color in the input arrays
+	 * @param argb output packed ARGB values
+	 * @param dstPos index of the first color in <code>argb</code>
+	 * @param length number of colors
+	 */
+	public static void linearToRgb(float[] r, float[] g, float[] b, int srcPos, int[] argb, int dstPos, int length) {
+		for(int i = 0; i < length; i++) {
+			int s = srcPos + i;
+			argb[dstPos + i] = 0xFF000000
+					| ColorUitl.linearToSrgb(r[s]) << 16
+					| ColorUitl.linearToSrgb(g[s]) << 8
+					| ColorUitl.linearToSrgb(b[s]);
+		}
+	}
+
+
+	/*==========
+	 * linear RGB <-> XYZ <-> Lab
+	 *==========*/
+
+	/**
+	 * Convert linear RGB to XYZ
+	 * @param r input red, output X
+	 * @param g input green, output Y
+	 * @param b input blue, output Z
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void linearToXyz(float[] r, float[] g, float[] b, int pos, int length) {
+		for(int i = pos; i < pos + length; i++) {
+			float lr = r[i], lg = g[i], lb = b[i];
+			r[i] = 0.4124564f * lr + 0.3575761f * lg + 0.1804375f * lb;
+			g[i] = 0.2126729f * lr + 0.7151522f * lg + 0.0721750f * lb;
+			b[i] = 0.0193339f * lr + 0.1191920f * lg + 0.9503041f * lb;
+		}
+	}
+
+	/**
+	 * Convert XYZ to linear RGB
+	 * @param x input X, output red
+	 * @param y input Y, output green
+	 * @param z input Z, output blue
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void xyzToLinear(float[] x, float[] y, float[] z, int pos, int length) {
+		for(int i = pos; i < pos + length; i++) {
+			float cx = x[i], cy = y[i], cz = z[i];
+			x[i] = 3.2404542f * cx - 1.5371385f * cy - 0.4985314f * cz;
+			y[i] = -0.9692660f * cx + 1.8760108f * cy + 0.0415560f * cz;
+			z[i] = 0.0556434f * cx - 0.2040259f * cy + 1.0572252f * cz;
+		}
+	}
+
+	/**
+	 * Convert XYZ to CIELAB
+	 * @param x input X, output L
+	 * @param y input Y, output a
+	 * @param z input Z, output b
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void xyzToLab(float[] x, float[] y, float[] z, int pos, int length) {
+		for(int i = pos; i < pos + length; i++) {
+			float fx = labF(x[i] / XN);
+			float fy = labF(y[i] / YN);
+			float fz = labF(z[i] / ZN);
+			x[i] = 116f * fy - 16f;
+			y[i] = 500f * (fx - fy);
+			z[i] = 200f * (fy - fz);
+		}
+	}
+
+	/**
+	 * Convert CIELAB to XYZ
+	 * @param l input L, output X
+	 * @param a input a, output Y
+	 * @param b input b, output Z
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void labToXyz(float[] l, float[] a, float[] b, int pos, int length) {
+		for(int i = pos; i < pos + length; i++) {
+			float cl = l[i];
+			float fy = (cl + 16f) / 116f;
+			float fx = fy + a[i] / 500f;
+			float fz = fy - b[i] / 200f;
+			l[i] = XN * labFInv(fx);
+			a[i] = YN * (cl > KAPPA * EPSILON ? fy * fy * fy : cl / KAPPA);
+			b[i] = ZN * labFInv(fz);
+		}
+	}
+
+	private static float labF(float t) {
+		return t > EPSILON ? (float) Math.cbrt(t) : (KAPPA * t + 16f) / 116f;
+	}
+
+	private static float labFInv(float f) {
+		float f3 = f * f * f;
+		return f3 > EPSILON ? f3 : (116f * f - 16f) / KAPPA;
+	}
+
+
+	/*==========
+	 * linear RGB <-> OKLab <-> OKLCH
+	 *==========*/
+
+	/**
+	 * Convert linear RGB to OKLab
+	 * @param r input red, output L
+	 * @param g input green, output a
+	 * @param b input blue, output b
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void linearToOklab(float[] r, float[] g, float[] b, int pos, int length) {
+		float[] lab = new float[3];
+		for(int i = pos; i < pos + length; i++) {
+			linearToOklab(r[i], g[i], b[i], lab);
+			r[i] = lab[0];
+			g[i] = lab[1];
+			b[i] = lab[2];
+		}
+	}
+
+	/**
+	 * Convert one linear RGB color to OKLab
+	 * @param lab array for <code>{L, a, b}</code>
+	 */
+	static void linearToOklab(float lr, float lg, float lb, float[] lab) {
+		float l = (float) Math.cbrt(0.4122214708f * lr + 0.5363325363f * lg + 0.0514459929f * lb);
+		float m = (float) Math.cbrt(0.2119034982f * lr + 0.6806995451f * lg + 0.1073969566f * lb);
+		float s = (float) Math.cbrt(0.0883024619f * lr + 0.2817188376f * lg + 0.6299787005f * lb);
+		lab[0] = 0.2104542553f * l + 0.7936177850f * m - 0.0040720468f * s;
+		lab[1] = 1.9779984951f * l - 2.4285922050f * m + 0.4505937099f * s;
+		lab[2] = 0.0259040371f * l + 0.7827717662f * m - 0.8086757660f * s;
+	}
+
+	/**
+	 * Convert OKLab to linear RGB
+	 * @param lightness input L, output red
+	 * @param a input a, output green
+	 * @param b input b, output blue
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void oklabToLinear(float[] lightness, float[] a, float[] b, int pos, int length) {
+		float[] rgb = new float[3];
+		for(int i = pos; i < pos + length; i++) {
+			oklabToLinear(lightness[i], a[i], b[i], rgb);
+			lightness[i] = rgb[0];
+			a[i] = rgb[1];
+			b[i] = rgb[2];
+		}
+	}
+
+	/**
+	 * Convert one OKLab color to linear RGB
+	 * @param rgb array for <code>{red, green, blue}</code>
+	 */
+	static void oklabToLinear(float lightness, float a, float b, float[] rgb) {
+		float l = lightness + 0.3963377774f * a + 0.2158037573f * b;
+		float m = lightness - 0.1055613458f * a - 0.0638541728f * b;
+		float s = lightness - 0.0894841775f * a - 1.2914855480f * b;
+		l = l * l * l;
+		m = m * m * m;
+		s = s * s * s;
+		rgb[0] = 4.0767416621f * l - 3.3077115913f * m + 0.2309699292f * s;
+		rgb[1] = -1.2684380046f * l + 2.6097574011f * m - 0.3413193965f * s;
+		rgb[2] = -0.0041960863f * l - 0.7034186147f * m + 1.7076147010f * s;
+	}
+
+	/**
+	 * Convert OKLab to OKLCH
+	 * @param lightness L (not changed)
+	 * @param a input a, output chroma
+	 * @param b input b, output hue in degrees
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void oklabToOklch(float[] lightness, float[] a, float[] b, int pos, int length) {
+		for(int i = pos; i < pos + length; i++) {
+			float ca = a[i], cb = b[i];
+			float h = (float) Math.toDegrees(Math.atan2(cb, ca));
+			a[i] = (float) Math.sqrt(ca * ca + cb * cb);
+			b[i] = h < 0f ? h + 360f : h;
+		}
+	}
+
+	/**
+	 * Convert OKLCH to OKLab
+	 * @param lightness L (not changed)
+	 * @param chroma input chroma, output a
+	 * @param hue input hue in degrees, output b
+	 * @param pos index of the first color
+	 * @param length number of colors
+	 */
+	public static void oklchToOklab(float[] lightness, float[] chroma, float[] hue, int pos, int length) {
+		for(int i = pos; i < pos + length; i++) {
+			double h = Math.toRadians(hue[i]);
+			float c = chroma[i];
+			chroma[i] = (float) (c * Math.cos(h));
+			hue[i] = (float) (c * Math.sin(h));
+		}
+	}
+
+
+	/*==========
+	 * Combined conversions
+	 *==========*/
+
+	/**
+	 * Convert packed RGB to XYZ
+	 * @see #rgbToLinear(int[], int, float[], float[], float[], int, int)
+	 * @see #linearToXyz(float[], float[], float[], int, int)
+	 */
+	public static void rgbToXyz(int[] argb, int srcPos, float[] x, float[] y, float[] z, int dstPos, int length) {
+		rgbToLinear(argb, srcPos, x, y, z, dstPos, length);
+		linearToXyz(x, y, z, dstPos, length);
+	}
+
+	/**
+	 * Convert packed RGB to CIELAB
+	 * @see #rgbToXyz(int[], int, float[], float[], float[], int, int)
+	 * @see #xyzToLab(float[], float[], float[], int, int)
+	 */
+	public static void rgbToLab(int[] argb, int srcPos, float[] l, float[] a, float[] b, int dstPos, int length) {
+		rgbToXyz(argb, srcPos, l, a, b, dstPos, length);
+		xyzToLab(l, a, b, dstPos, length);
+	}
+
+	/**
+	 * Convert packed RGB to OKLab
+	 * @see #rgbToLinear(int[], int, float[], float[], float[], int, int)
+	 * @see #linearToOklab(float[], float[], float[], int, int)
+	 */
+	public static void rgbToOklab(int[] argb, int srcPos, float[] l, float[] a, float[] b, int dstPos, int length) {
+		rgbToLinear(argb, srcPos, l, a, b, dstPos, length);
+		linearToOklab(l, a, b, dstPos, length);
+	}
+
+	/**
+	 * Convert packed RGB to OKLCH
+	 * @see #rgbToOklab(int[], int, float[], float[], float[], int, int)
+	 * @see #oklabToOklch(float[], float[], float[], int, int)
+	 */
+	public static void rgbToOklch(int[] argb, int srcPos, float[] l, float[] c, float[] h, int dstPos, int length) {
+		rgbToOklab(argb, srcPos, l, c, h, dstPos, length);
+		oklabToOklch(l, c, h, dstPos, length);
+	}
+
+	/**
+	 * Convert XYZ to packed RGB. The input arrays are overwritten with linear RGB.
+	 * @see #xyzToLinear(float[], float[], float[], int, int)
+	 * @see #linearToRgb(float[], float[], float[], int, int[], int, int)
+	 */
+	public static void xyzToRgb(float[] x, float[] y, float[] z, int srcPos, int[] argb, int dstPos, int length) {
+		xyzToLinear(x, y, z, srcPos, length);
+		linearToRgb(x, y, z, srcPos, argb, dstPos, length);
+	}
+
+	/**
+	 * Convert CIELAB to packed RGB. The input arrays are overwritten with linear RGB.
+	 * @see #labToXyz(float[], float[], float[], int, int)
+	 * @see #xyzToRgb(float[], float[], float[], int, int[], int, int)
+	 */
+	public static void labToRgb(float[] l, float[] a, float[] b, int srcPos, int[] argb, int dstPos, int length) {
+		labToXyz(l, a, b, srcPos, length);
+		xyzToRgb(l, a, b, srcPos, argb, dstPos, length);
+	}
+
+	/**
+	 * Convert OKLab to packed RGB. The input arrays are overwritten with linear RGB.
+	 * @see #oklabToLinear(float[], float[], float[], int, int)
+	 * @see #linearToRgb(float[], float[], float[], int, int[], int, int)
+	 */
+	public static void oklabToRgb(float[] l, float[] a, float[] b, int srcPos, int[] argb, int dstPos, int length) {
+		oklabToLinear(l, a, b, srcPos, length);
+		linearToRgb(l, a, b, srcPos, argb, dstPos, length);
+	}
+
+	/**
+	 * Convert OKLCH to packed RGB. The input arrays are overwritten with linear RGB.
+	 * @see #oklchToOklab(float[], float[], float[], int, int)
+	 * @see #oklabToRgb(float[], float[], float[], int, int[], int, int)
+	 */
+	public static void oklchToRgb(float[] l, float[] c, float[] h, int srcPos, int[] argb, int dstPos, int length) {
+		oklchToOklab(l, c, h, srcPos, length);
+		oklabToRgb(l, c, h, srcPos, argb, dstPos, length);
+	}
+
+}
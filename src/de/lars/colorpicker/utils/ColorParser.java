@@ -0,0 +1,100 @@
+package de.lars.colorpicker.utils;
+
+/**
+ * Parses color values from text input.
+ * <p>The methods scan the characters of a {@link CharSequence} and never throw
+ * an exception for invalid input, instead {@link #INVALID} is returned. No strings
+ * or other objects are created, so the methods can be called on every keystroke.
+ * Leading and trailing whitespace is ignored.</p>
+ * @author Lars O.
+ *
+ */
+public class ColorParser {
+
+	/** Returned if the input is not valid */
+	public static final int INVALID = -1;
+
+	private ColorParser() {
+	}
+
+
+	/**
+	 * Check if the text consists only of the digits <code>0-9</code>
+	 * @param text text to check, may be <code>null</code>
+	 * @return <code>true</code> if the text is not empty and contains only digits
+	 */
+	public static boolean isDigits(CharSequence text) {
+		if(text == null || text.length() == 0)
+			return false;
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if(c < '0' || c > '9')
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Parse a non-negative decimal number
+	 * @param text text to parse, may be <code>null</code>
+	 * @return the number or {@link #INVALID}
+	 */
+	public static int parseInt(CharSequence text) {
+		return text != null ? parseInt(text, 0, text.length()) : INVALID;
+	}
+
+	/**
+	 * Parse a non-negative decimal number
+	 * @param text text to parse
+	 * @param start index of the first character
+	 * @param end index after the last character
+	 * @return the number or {@link #INVALID}
+	 */
+	public static int parseInt(CharSequence text, int start, int end) {
+		while(start < end && isWhitespace(text.charAt(start)))
+			start++;
+		while(end > start && isWhitespace(text.charAt(end - 1)))
+			end--;
+		if(start == end)
+			return INVALID;
+		int value = 0;
+		for(int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if(c < '0' || c > '9' || value > (Integer.MAX_VALUE - 9) / 10)
+				return INVALID;
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * Parse a non-negative decimal number in the range <code>0..max</code>
+	 * @param text text to parse, may be <code>null</code>
+	 * @param max maximum value (inclusive)
+	 * @return the number or {@link #INVALID} if it is not valid or greater than <code>max</code>
+	 */
+	public static int parseInt(CharSequence text, int max) {
+		int value = parseInt(text);
+		return value <= max ? value : INVALID;
+	}
+
+	/**
+	 * Get the value of a hexadecimal digit
+	 * @param c character
+	 * @return <code>0..15</code> or {@link #INVALID}
+	 */
+	public static int hexDigit(char c) {
+		if(c >= '0' && c <= '9')
+			return c - '0';
+		if(c >= 'a' && c <= 'f')
+			return c - 'a' + 10;
+		if(c >= 'A' && c <= 'F')
+			return c - 'A' + 10;
+		return INVALID;
+	}
+
+	static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+	}
+
+}
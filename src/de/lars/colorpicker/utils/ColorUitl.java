@@ -13,6 +13,18 @@ public class ColorUitl {
 		return Color.RGBtoHSB(c.getRed(), c.getGreen(), c.getBlue(), null)[0];
 	}
 	
+	/**
+	 * Get the hue of a packed RGB value without creating objects
+	 * @param rgb packed RGB value
+	 * @return float 0..1
+	 */
+	public static float getHueFromRGB(int rgb) {
+		int r = (rgb >> 16) & 0xFF;
+		int g = (rgb >> 8) & 0xFF;
+		int b = rgb & 0xFF;
+		return ColorConverter.hue(r, g, b, Math.max(r, Math.max(g, b)), Math.min(r, Math.min(g, b)));
+	}
+	
 	public static Color getColorFromHue(float hue) {
 		return Color.getHSBColor(hue, 1.0f, 1.0f);
 	}
@@ -32,5 +44,85 @@ public class ColorUitl {
 		hsb[2] = hsv[2] / 100f;
 		return hsb;
 	}
+	
+	
+	/** sRGB component <code>(0..255)</code> to linear RGB */
+	private static final float[] SRGB_TO_LINEAR = new float[256];
+	/** Linear value at which the sRGB component is rounded up to the next value */
+	private static final float[] SRGB_THRESHOLD = new float[256];
+	/** Steps of {@link #LINEAR_TO_SRGB} */
+	private static final int LINEAR_STEPS = 4096;
+	/** sRGB component at the start of each linear step */
+	private static final byte[] LINEAR_TO_SRGB = new byte[LINEAR_STEPS];
+	static {
+		for(int i = 0; i < 256; i++) {
+			SRGB_TO_LINEAR[i] = (float) decodeSrgb(i / 255.0);
+			SRGB_THRESHOLD[i] = i < 255 ? (float) decodeSrgb((i + 0.5) / 255.0) : Float.POSITIVE_INFINITY;
+		}
+		int v = 0;
+		for(int i = 0; i < LINEAR_STEPS; i++) {
+			float c = (float) i / LINEAR_STEPS;
+			while(c >= SRGB_THRESHOLD[v])
+				v++;
+			LINEAR_TO_SRGB[i] = (byte) v;
+		}
+	}
+	
+	private static double decodeSrgb(double c) {
+		return c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+	}
+	
+	/**
+	 * Convert an sRGB component to linear RGB
+	 * @param c sRGB component <code>(0..255)</code>
+	 * @return linear component <code>(0.0F..1.0F)</code>
+	 */
+	public static float srgbToLinear(int c) {
+		return SRGB_TO_LINEAR[c & 0xFF];
+	}
+	
+	/**
+	 * Convert a linear RGB component to sRGB.
+	 * Uses lookup tables, the result is correctly rounded.
+	 * @param c linear component <code>(0.0F..1.0F)</code>, values outside are clipped
+	 * @return sRGB component <code>(0..255)</code>
+	 */
+	public static int linearToSrgb(float c) {
+		if(!(c > 0f))
+			return 0;	// also NaN
+		if(c >= 1f)
+			return 255;
+		int v = LINEAR_TO_SRGB[(int) (c * LINEAR_STEPS)] & 0xFF;
+		while(c >= SRGB_THRESHOLD[v])
+			v++;
+		return v;
+	}
+	
+	/**
+	 * Convert a color to OKLab
+	 * @param rgb packed RGB value
+	 * @param lab array for the result or <code>null</code>
+	 * @return <code>{L, a, b}</code>, L in <code>(0.0F..1.0F)</code>
+	 */
+	public static float[] rgbToOklab(int rgb, float[] lab) {
+		if(lab == null)
+			lab = new float[3];
+		ColorConverter.linearToOklab(SRGB_TO_LINEAR[(rgb >> 16) & 0xFF],
+				SRGB_TO_LINEAR[(rgb >> 8) & 0xFF], SRGB_TO_LINEAR[rgb & 0xFF], lab);
+		return lab;
+	}
+	
+	/**
+	 * Convert an OKLab color to RGB. Colors outside of the sRGB gamut are clipped.
+	 * @param lightness L <code>(0.0F..1.0F)</code>
+	 * @param a a
+	 * @param b b
+	 * @return packed RGB value
+	 */
+	public static int oklabToRgb(float lightness, float a, float b) {
+		float[] rgb = new float[3];
+		ColorConverter.oklabToLinear(lightness, a, b, rgb);
+		return 0xFF000000 | (linearToSrgb(rgb[0]) << 16) | (linearToSrgb(rgb[1]) << 8) | linearToSrgb(rgb[2]);
+	}
 
 }
@@ -0,0 +1,149 @@
+package de.lars.colorpicker.utils;
+
+import java.awt.Color;
+
+/**
+ * Immutable color stored as packed ARGB value.
+ * <p>The hue is stored separately, because it can not be restored from the RGB value
+ * of gray colors. Saturation, brightness and the {@link Color} object are
+ * only calculated when they are requested.</p>
+ * @author Lars O.
+ *
+ */
+public final class ColorValue {
+
+	private final int argb;
+	private final float hue;
+	private float saturation, brightness;
+	private volatile boolean hsbCalculated;
+	private volatile Color color;
+
+	/**
+	 * Create a new color value
+	 * @param argb packed ARGB value
+	 * @param hue hue of the color <code>(0.0F..1.0F)</code>
+	 */
+	public ColorValue(int argb, float hue) {
+		this.argb = argb;
+		this.hue = hue;
+	}
+
+	/**
+	 * Create a color value and calculate the hue from the RGB value
+	 * @param argb packed ARGB value
+	 * @return ColorValue
+	 */
+	public static ColorValue of(int argb) {
+		int r = (argb >> 16) & 0xFF;
+		int g = (argb >> 8) & 0xFF;
+		int b = argb & 0xFF;
+		int max = Math.max(r, Math.max(g, b));
+		int min = Math.min(r, Math.min(g, b));
+		return new ColorValue(argb, ColorConverter.hue(r, g, b, max, min));
+	}
+
+	/**
+	 * Create a color value from a {@link Color}
+	 * @param color color
+	 * @return ColorValue
+	 */
+	public static ColorValue of(Color color) {
+		ColorValue value = of(color.getRGB());
+		value.color = color;
+		return value;
+	}
+
+
+	/**
+	 * Get the packed ARGB value
+	 * @return ARGB value
+	 */
+	public int getRGB() {
+		return argb;
+	}
+
+	public int getRed() {
+		return (argb >> 16) & 0xFF;
+	}
+
+	public int getGreen() {
+		return (argb >> 8) & 0xFF;
+	}
+
+	public int getBlue() {
+		return argb & 0xFF;
+	}
+
+	public int getAlpha() {
+		return argb >>> 24;
+	}
+
+	/**
+	 * Get the hue
+	 * @return float 0..1
+	 */
+	public float getHue() {
+		return hue;
+	}
+
+	/**
+	 * Get the HSB saturation
+	 * @return float 0..1
+	 */
+	public float getSaturation() {
+		calculateHSB();
+		return saturation;
+	}
+
+	/**
+	 * Get the HSB brightness
+	 * @return float 0..1
+	 */
+	public float getBrightness() {
+		calculateHSB();
+		return brightness;
+	}
+
+	private void calculateHSB() {
+		if(hsbCalculated)
+			return;
+		int max = Math.max(getRed(), Math.max(getGreen(), getBlue()));
+		int min = Math.min(getRed(), Math.min(getGreen(), getBlue()));
+		brightness = max / 255f;
+		saturation = max != 0 ? (float) (max - min) / max : 0f;
+		hsbCalculated = true;
+	}
+
+	/**
+	 * Get this color as {@link Color}. The object is created once.
+	 * @return Color
+	 */
+	public Color toColor() {
+		Color c = color;
+		if(c == null)
+			color = c = new Color(argb, true);
+		return c;
+	}
+
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(!(obj instanceof ColorValue))
+			return false;
+		ColorValue other = (ColorValue) obj;
+		return argb == other.argb && Float.floatToIntBits(hue) == Float.floatToIntBits(other.hue);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * argb + Float.floatToIntBits(hue);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getName() + "[argb=#" + Integer.toHexString(argb) + ",hue=" + hue + "]";
+	}
+
+}
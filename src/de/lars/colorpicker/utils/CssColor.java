@@ -0,0 +1,656 @@
+package de.lars.colorpicker.utils;
+
+import java.awt.Color;
+
+/**
+ * Parses and formats CSS color strings.
+ * <p>Supported formats:</p>
+ * <ul>
+ * <li>hex: <code>#rgb</code>, <code>#rgba</code>, <code>#rrggbb</code>, <code>#rrggbbaa</code></li>
+ * <li><code>rgb()</code> and <code>rgba()</code> with numbers <code>(0..255)</code> or percentages</li>
+ * <li><code>hsl()</code> and <code>hsla()</code>, hue in degrees or with the unit <code>deg</code>, <code>rad</code>, <code>grad</code> or <code>turn</code></li>
+ * <li><code>hsv()</code>, <code>hsva()</code> and the aliases <code>hsb()</code>, <code>hsba()</code></li>
+ * <li>the 148 CSS named colors and <code>transparent</code></li>
+ * <li>hex without <code>#</code> or with a <code>0x</code> prefix, if enabled with {@link #setLenientHex(boolean)}</li>
+ * </ul>
+ * <p>Function arguments can be separated by commas (<code>rgba(255, 0, 0, 0.5)</code>) or
+ * spaces with the alpha after a slash (<code>rgb(255 0 0 / 50%)</code>). Names and
+ * functions are case-insensitive, values outside of the valid range are clamped.</p>
+ * <p>The parser scans the characters of a {@link CharSequence} directly, no strings or
+ * other objects are created. An instance can be reused for any number of colors,
+ * but it is not thread safe. The format methods are static and append to a {@link StringBuilder}.</p>
+ * @author Lars O.
+ *
+ */
+public class CssColor {
+
+	/** Returned by the parse methods if the input is not a valid color */
+	public static final long INVALID = -1L;
+
+	private static final int RGB = 0, HSL = 1, HSV = 2;
+	private static final String[] FUNCTIONS = {"rgb", "rgba", "hsl", "hsla", "hsv", "hsva", "hsb", "hsba"};
+	private static final int[] FUNCTION_TYPES = {RGB, RGB, HSL, HSL, HSV, HSV, HSV, HSV};
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/** CSS named colors, sorted by name */
+	private static final String[] NAMES = {
+			"aliceblue", "antiquewhite", "aqua", "aquamarine", "azure", "beige", "bisque", "black",
+			"blanchedalmond", "blue", "blueviolet", "brown", "burlywood", "cadetblue", "chartreuse", "chocolate",
+			"coral", "cornflowerblue", "cornsilk", "crimson", "cyan", "darkblue", "darkcyan", "darkgoldenrod",
+			"darkgray", "darkgreen", "darkgrey", "darkkhaki", "darkmagenta", "darkolivegreen", "darkorange", "darkorchid",
+			"darkred", "darksalmon", "darkseagreen", "darkslateblue", "darkslategray", "darkslategrey", "darkturquoise", "darkviolet",
+			"deeppink", "deepskyblue", "dimgray", "dimgrey", "dodgerblue", "firebrick", "floralwhite", "forestgreen",
+			"fuchsia", "gainsboro", "ghostwhite", "gold", "goldenrod", "gray", "green", "greenyellow",
+			"grey", "honeydew", "hotpink", "indianred", "indigo", "ivory", "khaki", "lavender",
+			"lavenderblush", "lawngreen", "lemonchiffon", "lightblue", "lightcoral", "lightcyan", "lightgoldenrodyellow", "lightgray",
+			"lightgreen", "lightgrey", "lightpink", "lightsalmon", "lightseagreen", "lightskyblue", "lightslategray", "lightslategrey",
+			"lightsteelblue", "lightyellow", "lime", "limegreen", "linen", "magenta", "maroon", "mediumaquamarine",
+			"mediumblue", "mediumorchid", "mediumpurple", "mediumseagreen", "mediumslateblue", "mediumspringgreen", "mediumturquoise", "mediumvioletred",
+			"midnightblue", "mintcream", "mistyrose", "moccasin", "navajowhite", "navy", "oldlace", "olive",
+			"olivedrab", "orange", "orangered", "orchid", "palegoldenrod", "palegreen", "paleturquoise", "palevioletred",
+			"papayawhip", "peachpuff", "peru", "pink", "plum", "powderblue", "purple", "rebeccapurple",
+			"red", "rosybrown", "royalblue", "saddlebrown", "salmon", "sandybrown", "seagreen", "seashell",
+			"sienna", "silver", "skyblue", "slateblue", "slategray", "slategrey", "snow", "springgreen",
+			"steelblue", "tan", "teal", "thistle", "tomato", "transparent", "turquoise", "violet",
+			"wheat", "white", "whitesmoke", "yellow", "yellowgreen"
+	};
+
+	/** ARGB values of {@link #NAMES} */
+	private static final int[] NAMED_COLORS = {
+			0xFFF0F8FF, 0xFFFAEBD7, 0xFF00FFFF, 0xFF7FFFD4, 0xFFF0FFFF, 0xFFF5F5DC, 0xFFFFE4C4, 0xFF000000,
+			0xFFFFEBCD, 0xFF0000FF, 0xFF8A2BE2, 0xFFA52A2A, 0xFFDEB887, 0xFF5F9EA0, 0xFF7FFF00, 0xFFD2691E,
+			0xFFFF7F50, 0xFF6495ED, 0xFFFFF8DC, 0xFFDC143C, 0xFF00FFFF, 0xFF00008B, 0xFF008B8B, 0xFFB8860B,
+			0xFFA9A9A9, 0xFF006400, 0xFFA9A9A9, 0xFFBDB76B, 0xFF8B008B, 0xFF556B2F, 0xFFFF8C00, 0xFF9932CC,
+			0xFF8B0000, 0xFFE9967A, 0xFF8FBC8F, 0xFF483D8B, 0xFF2F4F4F, 0xFF2F4F4F, 0xFF00CED1, 0xFF9400D3,
+			0xFFFF1493, 0xFF00BFFF, 0xFF696969, 0xFF696969, 0xFF1E90FF, 0xFFB22222, 0xFFFFFAF0, 0xFF228B22,
+			0xFFFF00FF, 0xFFDCDCDC, 0xFFF8F8FF, 0xFFFFD700, 0xFFDAA520, 0xFF808080, 0xFF008000, 0xFFADFF2F,
+			0xFF808080, 0xFFF0FFF0, 0xFFFF69B4, 0xFFCD5C5C, 0xFF4B0082, 0xFFFFFFF0, 0xFFF0E68C, 0xFFE6E6FA,
+			0xFFFFF0F5, 0xFF7CFC00, 0xFFFFFACD, 0xFFADD8E6, 0xFFF08080, 0xFFE0FFFF, 0xFFFAFAD2, 0xFFD3D3D3,
+			0xFF90EE90, 0xFFD3D3D3, 0xFFFFB6C1, 0xFFFFA07A, 0xFF20B2AA, 0xFF87CEFA, 0xFF778899, 0xFF778899,
+			0xFFB0C4DE, 0xFFFFFFE0, 0xFF00FF00, 0xFF32CD32, 0xFFFAF0E6, 0xFFFF00FF, 0xFF800000, 0xFF66CDAA,
+			0xFF0000CD, 0xFFBA55D3, 0xFF9370DB, 0xFF3CB371, 0xFF7B68EE, 0xFF00FA9A, 0xFF48D1CC, 0xFFC71585,
+			0xFF191970, 0xFFF5FFFA, 0xFFFFE4E1, 0xFFFFE4B5, 0xFFFFDEAD, 0xFF000080, 0xFFFDF5E6, 0xFF808000,
+			0xFF6B8E23, 0xFFFFA500, 0xFFFF4500, 0xFFDA70D6, 0xFFEEE8AA, 0xFF98FB98, 0xFFAFEEEE, 0xFFDB7093,
+			0xFFFFEFD5, 0xFFFFDAB9, 0xFFCD853F, 0xFFFFC0CB, 0xFFDDA0DD, 0xFFB0E0E6, 0xFF800080, 0xFF663399,
+			0xFFFF0000, 0xFFBC8F8F, 0xFF4169E1, 0xFF8B4513, 0xFFFA8072, 0xFFF4A460, 0xFF2E8B57, 0xFFFFF5EE,
+			0xFFA0522D, 0xFFC0C0C0, 0xFF87CEEB, 0xFF6A5ACD, 0xFF708090, 0xFF708090, 0xFFFFFAFA, 0xFF00FF7F,
+			0xFF4682B4, 0xFFD2B48C, 0xFF008080, 0xFFD8BFD8, 0xFFFF6347, 0x00000000, 0xFF40E0D0, 0xFFEE82EE,
+			0xFFF5DEB3, 0xFFFFFFFF, 0xFFF5F5F5, 0xFFFFFF00, 0xFF9ACD32
+	};
+
+	// scanner state
+	private CharSequence text;
+	private int pos, end;
+	private boolean percent;	// the last parsed number had a % sign
+	private boolean lenientHex;
+
+	/**
+	 * Create a new parser. The parser can be reused, but not by multiple threads at the same time.
+	 */
+	public CssColor() {
+	}
+
+	/**
+	 * Also accept hex colors without <code>#</code> (<code>ff8000</code>) or with a
+	 * <code>0x</code> prefix (<code>0xff8000</code>), which are not valid CSS
+	 * @param lenientHex <code>true</code> to accept hex colors without <code>#</code>
+	 */
+	public void setLenientHex(boolean lenientHex) {
+		this.lenientHex = lenientHex;
+	}
+
+	public boolean isLenientHex() {
+		return lenientHex;
+	}
+
+
+	/*==========
+	 * PARSING
+	 *==========*/
+
+	/**
+	 * Parse a CSS color
+	 * @param text color string, may be <code>null</code>
+	 * @return ARGB value in the lower 32 bits or {@link #INVALID}
+	 */
+	public long parse(CharSequence text) {
+		return text != null ? parse(text, 0, text.length()) : INVALID;
+	}
+
+	/**
+	 * Parse a CSS color from a part of a text. Whitespace around the color is ignored.
+	 * @param text text that contains the color
+	 * @param start index of the first character
+	 * @param end index after the last character
+	 * @return ARGB value in the lower 32 bits or {@link #INVALID}
+	 */
+	public long parse(CharSequence text, int start, int end) {
+		this.text = text;
+		this.pos = start;
+		this.end = end;
+		try {
+			skipWhitespace();
+			while(this.end > pos && ColorParser.isWhitespace(text.charAt(this.end - 1)))
+				this.end--;
+			if(pos == this.end)
+				return INVALID;
+			if(text.charAt(pos) == '#')
+				return parseHex(pos + 1);
+
+			int nameStart = pos;
+			if(lenientHex) {
+				// no named color consists only of hex digits
+				boolean prefix = this.end - pos > 2 && text.charAt(pos) == '0' && (text.charAt(pos + 1) | 0x20) == 'x';
+				long value = parseHex(prefix ? pos + 2 : pos);
+				if(value != INVALID)
+					return value;
+				pos = nameStart;
+			}
+			while(pos < this.end && isLetter(text.charAt(pos)))
+				pos++;
+			if(pos == this.end)
+				return lookupName(nameStart, pos);
+			if(text.charAt(pos) == '(')
+				return parseFunction(nameStart, pos);
+			return INVALID;
+		} finally {
+			this.text = null;
+		}
+	}
+
+	/**
+	 * Parse a CSS color
+	 * @param text color string, may be <code>null</code>
+	 * @param defaultArgb returned if the text is not a valid color
+	 * @return ARGB value
+	 */
+	public int parseOrDefault(CharSequence text, int defaultArgb) {
+		long value = parse(text);
+		return value != INVALID ? (int) value : defaultArgb;
+	}
+
+	/**
+	 * Parse multiple colors
+	 * @param tokens one color per element
+	 * @param srcPos index of the first token
+	 * @param argb receives the ARGB values
+	 * @param dstPos index of the first ARGB value
+	 * @param length number of tokens
+	 * @param invalidArgb written for tokens that are not a valid color
+	 * @return number of invalid tokens
+	 */
+	public int parseAll(CharSequence[] tokens, int srcPos, int[] argb, int dstPos, int length, int invalidArgb) {
+		int invalid = 0;
+		for(int i = 0; i < length; i++) {
+			long value = parse(tokens[srcPos + i]);
+			if(value == INVALID) {
+				argb[dstPos + i] = invalidArgb;
+				invalid++;
+			} else {
+				argb[dstPos + i] = (int) value;
+			}
+		}
+		return invalid;
+	}
+
+	/**
+	 * Parse a list of colors separated by whitespace, commas, semicolons or line breaks,
+	 * for example <code>"#ff0000, rgb(0, 255, 0); blue"</code>.
+	 * Parsing stops at the first invalid color or when the array is full.
+	 * @param text list of colors
+	 * @param argb receives the ARGB values
+	 * @param dstPos index of the first ARGB value
+	 * @return number of colors written to <code>argb</code>
+	 */
+	public int parseList(CharSequence text, int[] argb, int dstPos) {
+		int count = 0;
+		int i = 0;
+		int length = text.length();
+		while(dstPos + count < argb.length) {
+			while(i < length && isListSeparator(text.charAt(i)))
+				i++;
+			if(i == length)
+				break;
+			// find the end of the token, separators inside of parentheses belong to the token
+			int tokenStart = i;
+			int depth = 0;
+			while(i < length) {
+				char c = text.charAt(i);
+				if(c == '(')
+					depth++;
+				else if(c == ')')
+					depth--;
+				else if(depth <= 0 && isListSeparator(c))
+					break;
+				i++;
+			}
+			long value = parse(text, tokenStart, i);
+			if(value == INVALID)
+				break;
+			argb[dstPos + count++] = (int) value;
+		}
+		return count;
+	}
+
+	/**
+	 * Check if a text is a valid CSS color
+	 * @param text color string, may be <code>null</code>
+	 * @return <code>true</code> if the text can be parsed
+	 */
+	public boolean isValid(CharSequence text) {
+		return parse(text) != INVALID;
+	}
+
+	/**
+	 * Parse a CSS color with a new parser, use an instance to parse many colors
+	 * @param text color string, may be <code>null</code>
+	 * @return ARGB value in the lower 32 bits or {@link #INVALID}
+	 */
+	public static long decode(CharSequence text) {
+		return new CssColor().parse(text);
+	}
+
+
+	private long parseHex(int start) {
+		pos = start;
+		int digits = end - pos;
+		if(digits != 3 && digits != 4 && digits != 6 && digits != 8)
+			return INVALID;
+		int value = 0;
+		for(int i = pos; i < end; i++) {
+			int digit = ColorParser.hexDigit(text.charAt(i));
+			if(digit < 0)
+				return INVALID;
+			value = digits <= 4 ? (value << 8) | (digit << 4) | digit : (value << 4) | digit;
+		}
+		if(digits == 3 || digits == 6)
+			return (0xFF000000 | value) & 0xFFFFFFFFL;
+		// RRGGBBAA to AARRGGBB
+		return ((value >>> 8) | (value << 24)) & 0xFFFFFFFFL;
+	}
+
+	private long lookupName(int start, int end) {
+		int low = 0;
+		int high = NAMES.length - 1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compareIgnoreCase(start, end, NAMES[mid]);
+			if(cmp == 0)
+				return NAMED_COLORS[mid] & 0xFFFFFFFFL;
+			if(cmp < 0)
+				high = mid - 1;
+			else
+				low = mid + 1;
+		}
+		return INVALID;
+	}
+
+	private long parseFunction(int nameStart, int nameEnd) {
+		int type = -1;
+		for(int i = 0; i < FUNCTIONS.length; i++) {
+			if(compareIgnoreCase(nameStart, nameEnd, FUNCTIONS[i]) == 0) {
+				type = FUNCTION_TYPES[i];
+				break;
+			}
+		}
+		if(type == -1)
+			return INVALID;
+		pos++;	// (
+
+		float c0, c1, c2;
+		float alpha = 1f;
+		skipWhitespace();
+		if(type == RGB) {
+			c0 = parseRGBComponent();
+			if(c0 < 0 || !skipSeparator())
+				return INVALID;
+			c1 = parseRGBComponent();
+			if(c1 < 0 || !skipSeparator())
+				return INVALID;
+			c2 = parseRGBComponent();
+		} else {
+			c0 = parseHue();
+			if(Float.isNaN(c0) || !skipSeparator())
+				return INVALID;
+			c1 = parsePercentage();
+			if(c1 < 0 || !skipSeparator())
+				return INVALID;
+			c2 = parsePercentage();
+		}
+		if(c2 < 0)
+			return INVALID;
+
+		skipWhitespace();
+		if(pos < end && (text.charAt(pos) == ',' || text.charAt(pos) == '/')) {
+			pos++;
+			skipWhitespace();
+			alpha = parseAlpha();
+			if(alpha < 0)
+				return INVALID;
+			skipWhitespace();
+		}
+		if(pos != end - 1 || text.charAt(pos) != ')')
+			return INVALID;
+
+		int rgb;
+		if(type == RGB) {
+			rgb = (Math.round(c0) << 16) | (Math.round(c1) << 8) | Math.round(c2);
+		} else if(type == HSL) {
+			// HSL to HSV
+			float v = c2 + c1 * Math.min(c2, 1f - c2);
+			float s = v > 0 ? 2f * (1f - c2 / v) : 0f;
+			rgb = Color.HSBtoRGB(c0, s, v) & 0xFFFFFF;
+		} else {
+			rgb = Color.HSBtoRGB(c0, c1, c2) & 0xFFFFFF;
+		}
+		return ((Math.round(alpha * 255f) << 24) | rgb) & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * @return RGB component <code>(0..255)</code> or <code>-1</code>
+	 */
+	private float parseRGBComponent() {
+		double value = parseNumber();
+		if(Double.isNaN(value))
+			return -1;
+		if(percent)
+			value *= 2.55;
+		return (float) clamp(value, 255);
+	}
+
+	/**
+	 * @return hue <code>(0..1)</code> or {@link Float#NaN}
+	 */
+	private float parseHue() {
+		double value = parseNumber();
+		if(Double.isNaN(value) || percent)
+			return Float.NaN;
+		int unitStart = pos;
+		while(pos < end && isLetter(text.charAt(pos)))
+			pos++;
+		double turns;
+		if(unitStart == pos || compareIgnoreCase(unitStart, pos, "deg") == 0)
+			turns = value / 360.0;
+		else if(compareIgnoreCase(unitStart, pos, "turn") == 0)
+			turns = value;
+		else if(compareIgnoreCase(unitStart, pos, "rad") == 0)
+			turns = value / (2.0 * Math.PI);
+		else if(compareIgnoreCase(unitStart, pos, "grad") == 0)
+			turns = value / 400.0;
+		else
+			return Float.NaN;
+		turns -= Math.floor(turns);
+		return (float) turns;
+	}
+
+	/**
+	 * Percentage with or without % sign
+	 * @return <code>(0..1)</code> or <code>-1</code>
+	 */
+	private float parsePercentage() {
+		double value = parseNumber();
+		if(Double.isNaN(value))
+			return -1;
+		return (float) clamp(value / 100.0, 1);
+	}
+
+	/**
+	 * Number <code>(0..1)</code> or percentage
+	 * @return <code>(0..1)</code> or <code>-1</code>
+	 */
+	private float parseAlpha() {
+		double value = parseNumber();
+		if(Double.isNaN(value))
+			return -1;
+		if(percent)
+			value /= 100.0;
+		return (float) clamp(value, 1);
+	}
+
+	/**
+	 * Parse a decimal number with optional sign, fraction, exponent and % sign
+	 * @return the number or {@link Double#NaN}
+	 */
+	private double parseNumber() {
+		int start = pos;
+		boolean negative = false;
+		if(pos < end && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+			negative = text.charAt(pos) == '-';
+			pos++;
+		}
+		double value = 0;
+		int digits = 0;
+		while(pos < end && isDigit(text.charAt(pos))) {
+			value = value * 10 + (text.charAt(pos++) - '0');
+			digits++;
+		}
+		if(pos < end && text.charAt(pos) == '.') {
+			pos++;
+			double scale = 1;
+			while(pos < end && isDigit(text.charAt(pos))) {
+				scale /= 10;
+				value += (text.charAt(pos++) - '0') * scale;
+				digits++;
+			}
+		}
+		if(digits == 0) {
+			pos = start;
+			return Double.NaN;
+		}
+		if(pos + 1 < end && (text.charAt(pos) | 0x20) == 'e') {
+			int expStart = pos++;
+			boolean negativeExp = false;
+			if(text.charAt(pos) == '+' || text.charAt(pos) == '-') {
+				negativeExp = text.charAt(pos) == '-';
+				pos++;
+			}
+			if(pos < end && isDigit(text.charAt(pos))) {
+				int exp = 0;
+				while(pos < end && isDigit(text.charAt(pos)) && exp < 1000)
+					exp = exp * 10 + (text.charAt(pos++) - '0');
+				value *= Math.pow(10, negativeExp ? -exp : exp);
+			} else {
+				pos = expStart;
+			}
+		}
+		percent = pos < end && text.charAt(pos) == '%';
+		if(percent)
+			pos++;
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Skip a comma or whitespace between two arguments
+	 * @return <code>false</code> if there is no separator
+	 */
+	private boolean skipSeparator() {
+		int start = pos;
+		skipWhitespace();
+		if(pos < end && text.charAt(pos) == ',') {
+			pos++;
+			skipWhitespace();
+			return true;
+		}
+		return pos > start;
+	}
+
+	private void skipWhitespace() {
+		while(pos < end && ColorParser.isWhitespace(text.charAt(pos)))
+			pos++;
+	}
+
+	/**
+	 * Compare a part of the text with a lower case string, ignoring the case of the text
+	 */
+	private int compareIgnoreCase(int start, int end, String lowerCase) {
+		int length = Math.min(end - start, lowerCase.length());
+		for(int i = 0; i < length; i++) {
+			char c = text.charAt(start + i);
+			if(c >= 'A' && c <= 'Z')
+				c += 'a' - 'A';
+			int diff = c - lowerCase.charAt(i);
+			if(diff != 0)
+				return diff;
+		}
+		return (end - start) - lowerCase.length();
+	}
+
+	private static double clamp(double value, double max) {
+		return value < 0 ? 0 : value > max ? max : value;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean isListSeparator(char c) {
+		return c == ',' || c == ';' || ColorParser.isWhitespace(c);
+	}
+
+
+	/*==========
+	 * FORMATTING
+	 *==========*/
+
+	/**
+	 * Append a color as <code>#rrggbb</code>, or <code>#rrggbbaa</code> if the color is not opaque
+	 * @param sb target
+	 * @param argb ARGB value
+	 * @return <code>sb</code>
+	 */
+	public static StringBuilder appendHex(StringBuilder sb, int argb) {
+		sb.append('#');
+		appendHexByte(sb, argb >> 16);
+		appendHexByte(sb, argb >> 8);
+		appendHexByte(sb, argb);
+		if((argb >>> 24) != 255)
+			appendHexByte(sb, argb >>> 24);
+		return sb;
+	}
+
+	/**
+	 * Append a color as <code>rgb(r, g, b)</code>, or <code>rgba(r, g, b, a)</code> if the color is not opaque
+	 * @param sb target
+	 * @param argb ARGB value
+	 * @return <code>sb</code>
+	 */
+	public static StringBuilder appendRgb(StringBuilder sb, int argb) {
+		int alpha = argb >>> 24;
+		sb.append(alpha != 255 ? "rgba(" : "rgb(");
+		sb.append((argb >> 16) & 0xFF).append(", ");
+		sb.append((argb >> 8) & 0xFF).append(", ");
+		sb.append(argb & 0xFF);
+		return appendAlpha(sb, alpha).append(')');
+	}
+
+	/**
+	 * Append a color as <code>hsl(h, s%, l%)</code>, or <code>hsla(h, s%, l%, a)</code> if the color is not opaque
+	 * @param sb target
+	 * @param argb ARGB value
+	 * @return <code>sb</code>
+	 */
+	public static StringBuilder appendHsl(StringBuilder sb, int argb) {
+		int r = (argb >> 16) & 0xFF;
+		int g = (argb >> 8) & 0xFF;
+		int b = argb & 0xFF;
+		int max = Math.max(r, Math.max(g, b));
+		int min = Math.min(r, Math.min(g, b));
+		float l = (max + min) / 510f;
+		float s = max == min ? 0f : (max - min) / 255f / (1f - Math.abs(2f * l - 1f));
+		float hue = ColorConverter.hue(r, g, b, max, min);
+		return appendHueFunction(sb, argb, "hsl", hue, s, l);
+	}
+
+	/**
+	 * Append a color as <code>hsv(h, s%, v%)</code>, or <code>hsva(h, s%, v%, a)</code> if the color is not opaque
+	 * @param sb target
+	 * @param argb ARGB value
+	 * @return <code>sb</code>
+	 */
+	public static StringBuilder appendHsv(StringBuilder sb, int argb) {
+		int r = (argb >> 16) & 0xFF;
+		int g = (argb >> 8) & 0xFF;
+		int b = argb & 0xFF;
+		int max = Math.max(r, Math.max(g, b));
+		int min = Math.min(r, Math.min(g, b));
+		return appendHsv(sb, argb, ColorConverter.hue(r, g, b, max, min));
+	}
+
+	/**
+	 * Append a color as <code>hsv(h, s%, v%)</code> with the specified hue,
+	 * which can not be calculated from gray colors
+	 * @param sb target
+	 * @param argb ARGB value
+	 * @param hue hue <code>(0.0F..1.0F)</code>
+	 * @return <code>sb</code>
+	 */
+	public static StringBuilder appendHsv(StringBuilder sb, int argb, float hue) {
+		int max = Math.max((argb >> 16) & 0xFF, Math.max((argb >> 8) & 0xFF, argb & 0xFF));
+		int min = Math.min((argb >> 16) & 0xFF, Math.min((argb >> 8) & 0xFF, argb & 0xFF));
+		float s = max != 0 ? (float) (max - min) / max : 0f;
+		return appendHueFunction(sb, argb, "hsv", hue, s, max / 255f);
+	}
+
+	/**
+	 * Get the CSS name of a color
+	 * @param argb ARGB value
+	 * @return name or <code>null</code> if the color has no name
+	 */
+	public static String nameOf(int argb) {
+		for(int i = 0; i < NAMED_COLORS.length; i++) {
+			if(NAMED_COLORS[i] == argb)
+				return NAMES[i];
+		}
+		return null;
+	}
+
+	/**
+	 * Format a color as <code>#rrggbb</code> or <code>#rrggbbaa</code>
+	 * @param argb ARGB value
+	 * @return hex string
+	 */
+	public static String toHex(int argb) {
+		return appendHex(new StringBuilder(9), argb).toString();
+	}
+
+	private static StringBuilder appendHueFunction(StringBuilder sb, int argb, String name, float hue, float s, float v) {
+		int alpha = argb >>> 24;
+		sb.append(name);
+		if(alpha != 255)
+			sb.append('a');
+		sb.append('(');
+		sb.append(Math.round(hue * 360f) % 360).append(", ");
+		sb.append(Math.round(s * 100f)).append("%, ");
+		sb.append(Math.round(v * 100f)).append('%');
+		return appendAlpha(sb, alpha).append(')');
+	}
+
+	/**
+	 * Append <code>, a</code> with up to three decimals if the alpha is not 255
+	 */
+	private static StringBuilder appendAlpha(StringBuilder sb, int alpha) {
+		if(alpha == 255)
+			return sb;
+		sb.append(", ");
+		int thousandths = Math.round(alpha * 1000f / 255f);
+		if(thousandths == 0)
+			return sb.append('0');
+		sb.append("0.");
+		int divisor = 100;
+		while(thousandths > 0) {
+			sb.append((char) ('0' + thousandths / divisor));
+			thousandths %= divisor;
+			divisor /= 10;
+		}
+		return sb;
+	}
+
+	private static void appendHexByte(StringBuilder sb, int value) {
+		sb.append(HEX_DIGITS[(value >> 4) & 0xF]).append(HEX_DIGITS[value & 0xF]);
+	}
+
+}
@@ -0,0 +1,208 @@
+package de.lars.colorpicker.utils;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * Thread safe list of listeners.
+ * <p>Changes copy the internal array, so listeners can be added and removed from any
+ * thread while the listeners are notified. {@link #getListeners()} returns a snapshot
+ * array that can be iterated without creating an iterator.
+ * Listeners added with {@link #addWeak(Object)} are held by a weak reference and removed
+ * automatically after they were garbage collected.</p>
+ * @author Lars O.
+ *
+ * @param <T> listener type
+ */
+public class ListenerList<T> {
+
+	private final Class<T> type;
+	private final Object lock = new Object();
+	private volatile Snapshot<T> snapshot;
+
+	/**
+	 * Create an empty listener list
+	 * @param type listener type, used to create the snapshot arrays
+	 */
+	public ListenerList(Class<T> type) {
+		this.type = type;
+		this.snapshot = new Snapshot<>(new Object[0], newArray(0));
+	}
+
+
+	/**
+	 * Add a listener
+	 * @param listener listener, <code>null</code> is ignored
+	 */
+	public void add(T listener) {
+		if(listener != null)
+			addEntry(listener);
+	}
+
+	/**
+	 * Add a listener that is held by a weak reference. The listener is removed
+	 * when it is no longer referenced anywhere else.
+	 * @param listener listener, <code>null</code> is ignored
+	 */
+	public void addWeak(T listener) {
+		if(listener != null)
+			addEntry(new WeakReference<>(listener));
+	}
+
+	private void addEntry(Object entry) {
+		synchronized (lock) {
+			Object[] entries = purge(snapshot.entries);
+			entries = Arrays.copyOf(entries, entries.length + 1);
+			entries[entries.length - 1] = entry;
+			setEntries(entries);
+		}
+	}
+
+	/**
+	 * Remove the first occurrence of a listener
+	 * @param listener listener to remove
+	 * @return <code>true</code> if the listener was found
+	 */
+	public boolean remove(T listener) {
+		synchronized (lock) {
+			Object[] entries = purge(snapshot.entries);
+			for(int i = 0; i < entries.length; i++) {
+				if(resolve(entries[i]) == listener) {
+					Object[] copy = new Object[entries.length - 1];
+					System.arraycopy(entries, 0, copy, 0, i);
+					System.arraycopy(entries, i + 1, copy, i, copy.length - i);
+					setEntries(copy);
+					return true;
+				}
+			}
+			setEntries(entries);
+			return false;
+		}
+	}
+
+	/**
+	 * Remove all listeners
+	 */
+	public void clear() {
+		synchronized (lock) {
+			setEntries(new Object[0]);
+		}
+	}
+
+	/**
+	 * Get the current listeners. The returned array must not be modified.
+	 * No array is created if the list contains only strongly held listeners.
+	 * With weak listeners the resolved array is reused until it is cleared by the garbage collector.
+	 * @return snapshot of the listeners
+	 */
+	public T[] getListeners() {
+		Snapshot<T> s = snapshot;
+		if(s.strong != null)
+			return s.strong;
+		WeakReference<T[]> resolvedRef = s.resolved;
+		T[] resolved = resolvedRef != null ? resolvedRef.get() : null;
+		if(resolved != null)
+			return resolved;
+
+		// resolve weak references
+		T[] result = newArray(s.entries.length);
+		int count = 0;
+		for(Object entry : s.entries) {
+			T listener = resolve(entry);
+			if(listener != null)
+				result[count++] = listener;
+		}
+		if(count < result.length) {
+			synchronized (lock) {
+				setEntries(purge(snapshot.entries));
+			}
+			return Arrays.copyOf(result, count);
+		}
+		s.resolved = new WeakReference<>(result);
+		return result;
+	}
+
+	/**
+	 * Get the number of listeners, including weak listeners that may have been collected
+	 * @return listener count
+	 */
+	public int size() {
+		return snapshot.entries.length;
+	}
+
+	public boolean isEmpty() {
+		return snapshot.entries.length == 0;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private T resolve(Object entry) {
+		if(entry instanceof WeakReference)
+			return ((WeakReference<T>) entry).get();
+		return (T) entry;
+	}
+
+	/**
+	 * Remove collected weak listeners
+	 */
+	private Object[] purge(Object[] entries) {
+		int count = 0;
+		for(Object entry : entries) {
+			if(resolve(entry) != null)
+				count++;
+		}
+		if(count == entries.length)
+			return entries;
+		Object[] copy = new Object[count];
+		int i = 0;
+		for(Object entry : entries) {
+			if(resolve(entry) != null)
+				copy[i++] = entry;
+		}
+		return copy;
+	}
+
+	/**
+	 * Publish a new snapshot, must hold the lock
+	 */
+	@SuppressWarnings("unchecked")
+	private void setEntries(Object[] entries) {
+		if(entries == snapshot.entries)
+			return;
+		T[] strong = newArray(entries.length);
+		for(int i = 0; i < entries.length; i++) {
+			if(entries[i] instanceof WeakReference) {
+				strong = null;
+				break;
+			}
+			strong[i] = (T) entries[i];
+		}
+		snapshot = new Snapshot<>(entries, strong);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T[] newArray(int length) {
+		return (T[]) Array.newInstance(type, length);
+	}
+
+
+	/**
+	 * State of the list, immutable except for the cache of resolved listeners
+	 */
+	private static class Snapshot<T> {
+		final Object[] entries;	// listener or WeakReference
+		final T[] strong;		// all listeners if there is no weak listener, otherwise null
+		/**
+		 * Resolved listeners if there are weak listeners. Held weakly, so the cached array does not keep
+		 * the weak listeners alive, it is cleared together with them.
+		 */
+		volatile WeakReference<T[]> resolved;
+
+		Snapshot(Object[] entries, T[] strong) {
+			this.entries = entries;
+			this.strong = strong;
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+package de.lars.colorpicker.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map that removes the least recently used entry when
+ * the maximum number of entries is exceeded.
+ * <p>Not thread safe, access must be synchronized by the caller.</p>
+ * @author Lars O.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LruCache<K, V> extends LinkedHashMap<K, V> {
+	private static final long serialVersionUID = -3384510519367214735L;
+
+	private int maxEntries;
+
+	/**
+	 * Create a new cache with the specified maximum number of entries
+	 * @param maxEntries maximum number of entries
+	 */
+	public LruCache(int maxEntries) {
+		super(16, 0.75f, true);
+		this.maxEntries = maxEntries;
+	}
+
+	@Override
+	protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+		return size() > maxEntries;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Set the maximum number of entries.
+	 * <p>Exceeding entries are removed on the next insertion</p>
+	 * @param maxEntries maximum number of entries
+	 */
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+}